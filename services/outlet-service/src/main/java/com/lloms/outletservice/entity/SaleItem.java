@@ -23,6 +23,8 @@ public class SaleItem {
     @Field("product_name")
     private String productName;
 
+    private String category;
+
     @NotNull(message = "Quantity is required")
     @Min(value = 1, message = "Quantity must be at least 1")
     private Integer quantity;
@@ -0,0 +1,272 @@
+package com.lloms.outletservice.sync;
+
+import com.lloms.outletservice.entity.Sale;
+import com.mongodb.MongoException;
+import com.mongodb.client.ChangeStreamIterable;
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.FindOneAndReplaceOptions;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.FullDocument;
+import jakarta.annotation.PreDestroy;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Publishes sales to the reporting service from the sales collection's change stream.
+ * Changes are sent in batches, and the stream's resume token is checkpointed in Mongo only
+ * after the reporting service accepted a batch, so a restart resumes where delivery stopped.
+ * While no sales change, the token is still checkpointed after each idle poll so it does not
+ * fall out of the oplog. Delivery is at least once; the reporting service upserts by sale ID
+ * and version.
+ * On first start, with no checkpoint, the stream is opened before existing sales are
+ * backfilled, so no sale written during the backfill is missed. If the checkpoint has fallen
+ * out of the oplog anyway, it is ignored and the sales are backfilled again.
+ * Change streams need MongoDB running as a replica set, so publishing is off unless
+ * app.reporting-sync.enabled is set.
+ */
+@Component
+public class SaleChangePublisher {
+
+    private static final Logger log = LoggerFactory.getLogger(SaleChangePublisher.class);
+
+    private static final String SALES_COLLECTION = "sales";
+    private static final String CHECKPOINT_COLLECTION = "sync_checkpoints";
+    private static final String CHECKPOINT_ID = "reporting-sales";
+    private static final String INGEST_PATH = "/api/v1/ingest/sales";
+
+    /**
+     * Server error when a resume token is older than the oplog
+     */
+    private static final int CHANGE_STREAM_HISTORY_LOST = 286;
+
+    private static final List<Bson> PIPELINE = List.of(
+            Aggregates.match(Filters.in("operationType", List.of("insert", "update", "replace"))));
+
+    private static final Duration MIN_BACKOFF = Duration.ofSeconds(1);
+    private static final Duration MAX_BACKOFF = Duration.ofSeconds(30);
+
+    private final MongoTemplate mongoTemplate;
+    private final RestClient restClient;
+    private final boolean enabled;
+    private final int batchSize;
+    private final Duration maxWait;
+
+    private volatile boolean running;
+    private Thread worker;
+
+    /**
+     * Set when the checkpoint can no longer be resumed from; worker thread only
+     */
+    private boolean reseed;
+
+    public SaleChangePublisher(MongoTemplate mongoTemplate, RestClient.Builder restClientBuilder,
+                               @Value("${app.reporting-sync.enabled:false}") boolean enabled,
+                               @Value("${app.reporting-sync.url:http://localhost:8090}") String reportingUrl,
+                               @Value("${app.reporting-sync.batch-size:500}") int batchSize,
+                               @Value("${app.reporting-sync.max-wait:2s}") Duration maxWait) {
+        this.mongoTemplate = mongoTemplate;
+        this.restClient = restClientBuilder.baseUrl(reportingUrl).build();
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.maxWait = maxWait;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        worker = new Thread(this::run, "sale-change-publisher");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (worker != null) {
+            worker.join(maxWait.multipliedBy(2).toMillis());
+        }
+    }
+
+    private void run() {
+        Duration backoff = MIN_BACKOFF;
+        while (running) {
+            try {
+                publish();
+                backoff = MIN_BACKOFF;
+            } catch (RuntimeException ex) {
+                if (isHistoryLost(ex)) {
+                    // Resuming would fail the same way; start over from a backfill, reporting ignores what it already has
+                    log.warn("Sales checkpoint for reporting is no longer in the oplog, backfilling again: {}",
+                            ex.getMessage());
+                    reseed = true;
+                    continue;
+                }
+                log.warn("Sale change stream failed, reopening from the last checkpoint in {}", backoff, ex);
+                sleep(backoff);
+                backoff = max(backoff.multipliedBy(2));
+            }
+        }
+    }
+
+    private void publish() {
+        BsonDocument checkpoint = reseed ? null : loadCheckpoint();
+        ChangeStreamIterable<Document> changes = mongoTemplate.getCollection(SALES_COLLECTION)
+                .watch(PIPELINE)
+                .fullDocument(FullDocument.UPDATE_LOOKUP)
+                .maxAwaitTime(maxWait.toMillis(), TimeUnit.MILLISECONDS);
+        if (checkpoint != null) {
+            changes = changes.resumeAfter(checkpoint);
+        }
+
+        try (MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor = changes.cursor()) {
+            if (checkpoint == null) {
+                backfill();
+                checkpoint = saveCheckpoint(cursor.getResumeToken(), null);
+                reseed = false;
+            }
+
+            List<SaleSyncRecord> batch = new ArrayList<>(batchSize);
+            long batchStarted = 0;
+            while (running) {
+                ChangeStreamDocument<Document> change = cursor.tryNext();
+                if (change != null && change.getFullDocument() != null) {
+                    if (batch.isEmpty()) {
+                        batchStarted = System.nanoTime();
+                    }
+                    toRecord(mongoTemplate.getConverter().read(Sale.class, change.getFullDocument()))
+                            .ifPresent(batch::add);
+                }
+                boolean due = !batch.isEmpty()
+                        && (change == null || System.nanoTime() - batchStarted >= maxWait.toNanos());
+                if (batch.size() >= batchSize || due) {
+                    send(batch);
+                    batch.clear();
+                    checkpoint = saveCheckpoint(cursor.getResumeToken(), checkpoint);
+                } else if (change == null && batch.isEmpty()) {
+                    // Idle poll: the token moves on past other collections' writes
+                    checkpoint = saveCheckpoint(cursor.getResumeToken(), checkpoint);
+                }
+            }
+        }
+    }
+
+    /**
+     * Sends every stored sale, for a first start with nothing delivered yet
+     */
+    private void backfill() {
+        log.info("No sales checkpoint for reporting, backfilling existing sales");
+        Query query = new Query().with(Sort.by("id"));
+        List<SaleSyncRecord> batch = new ArrayList<>(batchSize);
+        long sent = 0;
+        try (Stream<Sale> sales = mongoTemplate.stream(query, Sale.class)) {
+            for (Sale sale : (Iterable<Sale>) sales::iterator) {
+                toRecord(sale).ifPresent(batch::add);
+                if (batch.size() >= batchSize) {
+                    send(batch);
+                    sent += batch.size();
+                    batch.clear();
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            send(batch);
+            sent += batch.size();
+        }
+        log.info("Backfilled {} sales to reporting", sent);
+    }
+
+    private Optional<SaleSyncRecord> toRecord(Sale sale) {
+        try {
+            return Optional.of(SaleSyncRecord.from(sale));
+        } catch (NumberFormatException | NullPointerException ex) {
+            log.warn("Skipping sale {} for reporting, outlet or status not reportable: {}", sale.getId(),
+                    ex.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Posts a batch until the reporting service accepts it; the checkpoint is not moved past it before
+     */
+    private void send(List<SaleSyncRecord> batch) {
+        Duration backoff = MIN_BACKOFF;
+        while (true) {
+            try {
+                restClient.post().uri(INGEST_PATH).body(batch).retrieve().toBodilessEntity();
+                return;
+            } catch (RestClientException ex) {
+                if (!running) {
+                    throw ex;
+                }
+                log.warn("Reporting rejected a batch of {} sales, retrying in {}: {}", batch.size(), backoff,
+                        ex.getMessage());
+                sleep(backoff);
+                backoff = max(backoff.multipliedBy(2));
+            }
+        }
+    }
+
+    private BsonDocument loadCheckpoint() {
+        Document checkpoint = mongoTemplate.getCollection(CHECKPOINT_COLLECTION)
+                .find(Filters.eq("_id", CHECKPOINT_ID))
+                .first();
+        return checkpoint == null ? null : checkpoint.get("resumeToken", Document.class)
+                .toBsonDocument(BsonDocument.class, mongoTemplate.getDb().getCodecRegistry());
+    }
+
+    /**
+     * Stores the resume token unless it equals the one already stored
+     *
+     * @return the stored token
+     */
+    private BsonDocument saveCheckpoint(BsonDocument resumeToken, BsonDocument stored) {
+        if (resumeToken == null || resumeToken.equals(stored)) {
+            return stored;
+        }
+        mongoTemplate.getCollection(CHECKPOINT_COLLECTION).findOneAndReplace(
+                Filters.eq("_id", CHECKPOINT_ID),
+                new Document("_id", CHECKPOINT_ID).append("resumeToken", resumeToken),
+                new FindOneAndReplaceOptions().upsert(true));
+        return resumeToken;
+    }
+
+    private static boolean isHistoryLost(RuntimeException ex) {
+        return ex instanceof MongoException mongoException && mongoException.getCode() == CHANGE_STREAM_HISTORY_LOST;
+    }
+
+    private static Duration max(Duration backoff) {
+        return backoff.compareTo(MAX_BACKOFF) > 0 ? MAX_BACKOFF : backoff;
+    }
+
+    private static void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration.toMillis());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
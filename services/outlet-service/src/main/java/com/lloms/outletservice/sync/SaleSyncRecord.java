@@ -0,0 +1,51 @@
+package com.lloms.outletservice.sync;
+
+import com.lloms.outletservice.entity.Sale;
+import com.lloms.outletservice.entity.SaleItem;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * A sale in the shape the reporting service ingests. Lines carry the category recorded
+ * on the sale item; lines recorded without one are left out of category rankings.
+ */
+public record SaleSyncRecord(
+        String saleId,
+        String saleNumber,
+        Long outletId,
+        String customerId,
+        LocalDateTime soldAt,
+        String status,
+        long version,
+        BigDecimal totalAmount,
+        List<Line> items) {
+
+    public record Line(String productId, String productName, String category, int quantity, BigDecimal totalPrice) {
+    }
+
+    /**
+     * @throws NumberFormatException if the outlet ID is not numeric, as reporting keys outlets by number
+     */
+    static SaleSyncRecord from(Sale sale) {
+        List<Line> items = sale.getSaleItems() == null ? List.of() : sale.getSaleItems().stream()
+                .map(SaleSyncRecord::line)
+                .toList();
+        return new SaleSyncRecord(
+                sale.getId(),
+                sale.getSaleNumber(),
+                Long.valueOf(sale.getOutletId()),
+                sale.getCustomerId(),
+                sale.getCreatedAt() != null ? sale.getCreatedAt() : sale.getUpdatedAt(),
+                sale.getStatus().name(),
+                sale.getVersion() != null ? sale.getVersion() : 0,
+                sale.getTotalAmount(),
+                items);
+    }
+
+    private static Line line(SaleItem item) {
+        return new Line(item.getProductId(), item.getProductName(), item.getCategory(),
+                item.getQuantity() != null ? item.getQuantity() : 0, item.getTotalPrice());
+    }
+}
@@ -3,7 +3,9 @@ package com.lloms.productservice;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.core.Ordered;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
 
 /**
@@ -11,9 +13,11 @@ import org.springframework.transaction.annotation.EnableTransactionManagement;
  * Enterprise-level microservice for product management
  */
 @SpringBootApplication
-@EnableCaching
+// Caching wraps the transaction, so cache hits and requests waiting on a shared load hold no connection
+@EnableCaching(order = Ordered.LOWEST_PRECEDENCE - 1)
 @EnableJpaAuditing
 @EnableTransactionManagement
+@EnableScheduling
 public class ProductServiceApplication {
 
     public static void main(String[] args) {
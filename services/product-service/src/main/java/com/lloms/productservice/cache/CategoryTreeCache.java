@@ -0,0 +1,131 @@
+package com.lloms.productservice.cache;
+
+import com.lloms.productservice.dto.response.CategoryNodeResponse;
+import com.lloms.productservice.entity.Category;
+import com.lloms.productservice.repository.CategoryRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * In-memory copy of the category tree.
+ * Categories are few and rarely change, and they can be written outside this service,
+ * so the whole tree is rebuilt periodically and swapped in as one immutable snapshot.
+ * Callers get their own copies, so nothing they do to a response reaches the shared tree.
+ * A deleted category hides its whole subtree, the same as the category tree product query.
+ */
+@Component
+@Slf4j
+public class CategoryTreeCache {
+
+    private static final Comparator<CategoryNodeResponse> CHILD_ORDER = Comparator
+            .comparing(CategoryNodeResponse::getSortOrder, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(CategoryNodeResponse::getName)
+            .thenComparing(CategoryNodeResponse::getId);
+
+    private final CategoryRepository categoryRepository;
+    private final TransactionTemplate readOnlyTransaction;
+
+    private volatile Tree tree = new Tree(List.of(), Map.of());
+
+    public CategoryTreeCache(CategoryRepository categoryRepository, PlatformTransactionManager transactionManager) {
+        this.categoryRepository = categoryRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Root categories with their whole subtrees
+     */
+    public List<CategoryNodeResponse> roots() {
+        return tree.roots().stream().map(CategoryTreeCache::copy).toList();
+    }
+
+    /**
+     * A category with its whole subtree, empty if the category is unknown or deleted
+     */
+    public Optional<CategoryNodeResponse> find(Long categoryId) {
+        return Optional.ofNullable(tree.nodes().get(categoryId)).map(CategoryTreeCache::copy);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${app.category-tree.refresh-interval:5m}",
+            initialDelayString = "${app.category-tree.refresh-interval:5m}")
+    public void refresh() {
+        try {
+            List<Category> categories = readOnlyTransaction.execute(status ->
+                    categoryRepository.findAllOrderedByHierarchy());
+            tree = build(categories != null ? categories : List.of());
+            log.debug("Category tree refreshed with {} categories", tree.nodes().size());
+        } catch (DataAccessException ex) {
+            log.warn("Could not refresh category tree: {}", ex.getMessage());
+        }
+    }
+
+    private static Tree build(List<Category> categories) {
+        Map<Long, CategoryNodeResponse> nodes = new HashMap<>();
+        for (Category category : categories) {
+            nodes.put(category.getId(), CategoryNodeResponse.builder()
+                    .id(category.getId())
+                    .name(category.getName())
+                    .parentId(category.getParent() != null ? category.getParent().getId() : null)
+                    .sortOrder(category.getSortOrder())
+                    .build());
+        }
+
+        // Only deleted categories are missing, so a child whose parent is missing sits under a deleted one
+        List<CategoryNodeResponse> roots = new ArrayList<>();
+        for (CategoryNodeResponse node : nodes.values()) {
+            if (node.getParentId() == null) {
+                roots.add(node);
+            } else if (nodes.containsKey(node.getParentId())) {
+                nodes.get(node.getParentId()).getChildren().add(node);
+            }
+        }
+
+        roots.sort(CHILD_ORDER);
+        Map<Long, CategoryNodeResponse> reachable = new HashMap<>();
+        for (CategoryNodeResponse root : roots) {
+            order(root, 0, reachable);
+        }
+        return new Tree(List.copyOf(roots), Map.copyOf(reachable));
+    }
+
+    private static void order(CategoryNodeResponse node, int level, Map<Long, CategoryNodeResponse> reachable) {
+        reachable.put(node.getId(), node);
+        node.setLevel(level);
+        node.getChildren().sort(CHILD_ORDER);
+        for (CategoryNodeResponse child : node.getChildren()) {
+            order(child, level + 1, reachable);
+        }
+    }
+
+    /**
+     * Deep copy of a cached node; children lists are unmodifiable
+     */
+    private static CategoryNodeResponse copy(CategoryNodeResponse node) {
+        return CategoryNodeResponse.builder()
+                .id(node.getId())
+                .name(node.getName())
+                .parentId(node.getParentId())
+                .sortOrder(node.getSortOrder())
+                .level(node.getLevel())
+                .children(node.getChildren().stream().map(CategoryTreeCache::copy).toList())
+                .build();
+    }
+
+    private record Tree(List<CategoryNodeResponse> roots, Map<Long, CategoryNodeResponse> nodes) {
+    }
+}
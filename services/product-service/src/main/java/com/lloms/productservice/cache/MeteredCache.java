@@ -0,0 +1,109 @@
+package com.lloms.productservice.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cache.Cache;
+
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Cache decorator that records hits, misses and evictions per product key family
+ * (id, sku, barcode) as product.cache.gets and product.cache.evictions.
+ * A get that waited on another caller's load counts as a hit here; the near cache
+ * counts those separately as product.cache.coalesced.
+ */
+public class MeteredCache implements Cache {
+
+    private final Cache delegate;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+
+    public MeteredCache(Cache delegate, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return delegate.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        ValueWrapper value = delegate.get(key);
+        recordGet(key, value != null);
+        return value;
+    }
+
+    @Override
+    public <T> T get(Object key, Class<T> type) {
+        T value = delegate.get(key, type);
+        recordGet(key, value != null);
+        return value;
+    }
+
+    @Override
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        AtomicBoolean loaded = new AtomicBoolean();
+        T value = delegate.get(key, () -> {
+            loaded.set(true);
+            return valueLoader.call();
+        });
+        recordGet(key, !loaded.get());
+        return value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        delegate.put(key, value);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        return delegate.putIfAbsent(key, value);
+    }
+
+    @Override
+    public void evict(Object key) {
+        delegate.evict(key);
+        counter("product.cache.evictions", ProductCacheKeys.family(key), null).increment();
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        boolean evicted = delegate.evictIfPresent(key);
+        counter("product.cache.evictions", ProductCacheKeys.family(key), null).increment();
+        return evicted;
+    }
+
+    @Override
+    public void clear() {
+        delegate.clear();
+        counter("product.cache.evictions", "all", null).increment();
+    }
+
+    private void recordGet(Object key, boolean hit) {
+        counter("product.cache.gets", ProductCacheKeys.family(key), hit ? "hit" : "miss").increment();
+    }
+
+    private Counter counter(String name, String family, String result) {
+        String id = name + '|' + family + '|' + result;
+        return counters.computeIfAbsent(id, ignored -> {
+            Counter.Builder builder = Counter.builder(name)
+                    .tag("cache", getName())
+                    .tag("family", family);
+            if (result != null) {
+                builder.tag("result", result);
+            }
+            return builder.register(meterRegistry);
+        });
+    }
+}
@@ -0,0 +1,48 @@
+package com.lloms.productservice.cache;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+/**
+ * Broadcasts L1 invalidations to the other product-service replicas over Redis pub/sub.
+ * Message format: {@code <cache>|<L|S>:<key>} for a single key, {@code <cache>|*} for a clear.
+ */
+@RequiredArgsConstructor
+@Slf4j
+public class NearCacheInvalidationPublisher {
+
+    static final String CLEAR_ALL = "*";
+
+    private final StringRedisTemplate redisTemplate;
+    private final String channel;
+
+    public void publishEvict(String cacheName, Object key) {
+        publish(cacheName + '|' + encodeKey(key));
+    }
+
+    public void publishClear(String cacheName) {
+        publish(cacheName + '|' + CLEAR_ALL);
+    }
+
+    private void publish(String message) {
+        try {
+            redisTemplate.convertAndSend(channel, message);
+        } catch (RuntimeException ex) {
+            // L1 entries still expire through their TTL, so a lost message only delays consistency
+            log.warn("Failed to publish near cache invalidation {}: {}", message, ex.getMessage());
+        }
+    }
+
+    static String encodeKey(Object key) {
+        if (key instanceof Long) {
+            return "L:" + key;
+        }
+        return "S:" + key;
+    }
+
+    static Object decodeKey(String encoded) {
+        String value = encoded.substring(2);
+        return encoded.startsWith("L:") ? (Object) Long.valueOf(value) : value;
+    }
+}
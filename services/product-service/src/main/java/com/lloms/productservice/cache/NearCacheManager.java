@@ -0,0 +1,90 @@
+package com.lloms.productservice.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * CacheManager that puts a bounded Caffeine L1 in front of the selected Redis caches
+ * and applies invalidations received from other replicas
+ */
+@Slf4j
+public class NearCacheManager implements CacheManager, MessageListener {
+
+    private final CacheManager remoteCacheManager;
+    private final Set<String> nearCacheNames;
+    private final long maximumSize;
+    private final Duration ttl;
+    private final NearCacheInvalidationPublisher invalidationPublisher;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, TwoTierCache> nearCaches = new ConcurrentHashMap<>();
+
+    public NearCacheManager(CacheManager remoteCacheManager, Set<String> nearCacheNames, long maximumSize,
+            Duration ttl, NearCacheInvalidationPublisher invalidationPublisher, MeterRegistry meterRegistry) {
+        this.remoteCacheManager = remoteCacheManager;
+        this.nearCacheNames = nearCacheNames;
+        this.maximumSize = maximumSize;
+        this.ttl = ttl;
+        this.invalidationPublisher = invalidationPublisher;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        if (!nearCacheNames.contains(name)) {
+            return remoteCacheManager.getCache(name);
+        }
+        return nearCaches.computeIfAbsent(name, this::createNearCache);
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return remoteCacheManager.getCacheNames();
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int separator = body.indexOf('|');
+        if (separator < 0) {
+            return;
+        }
+
+        TwoTierCache cache = nearCaches.get(body.substring(0, separator));
+        if (cache == null) {
+            return;
+        }
+
+        String key = body.substring(separator + 1);
+        if (NearCacheInvalidationPublisher.CLEAR_ALL.equals(key)) {
+            cache.invalidateLocalAll();
+        } else {
+            cache.invalidateLocal(NearCacheInvalidationPublisher.decodeKey(key));
+        }
+    }
+
+    private TwoTierCache createNearCache(String name) {
+        Cache remote = remoteCacheManager.getCache(name);
+        com.github.benmanes.caffeine.cache.Cache<Object, Object> local = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, local, name + ".l1");
+
+        log.info("Near cache enabled for '{}' (maximumSize={}, ttl={})", name, maximumSize, ttl);
+        return new TwoTierCache(name, local, remote, invalidationPublisher, meterRegistry);
+    }
+}
@@ -0,0 +1,76 @@
+package com.lloms.productservice.cache;
+
+import com.lloms.productservice.repository.PricePoint;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Immutable price intervals of one product, resolved by binary search over the change times.
+ * The price before the first recorded change is that change's previous price, or the current
+ * price if the product was never repriced.
+ */
+public final class PriceTimeline {
+
+    private final BigDecimal basePrice;
+    private final LocalDateTime[] changeTimes;
+    private final BigDecimal[] prices;
+    private final LocalDateTime validBefore;
+
+    private PriceTimeline(BigDecimal basePrice, LocalDateTime[] changeTimes, BigDecimal[] prices,
+            LocalDateTime validBefore) {
+        this.basePrice = basePrice;
+        this.changeTimes = changeTimes;
+        this.prices = prices;
+        this.validBefore = validBefore;
+    }
+
+    /**
+     * @param points      price changes in effective order
+     * @param validBefore instants from here on may be affected by changes not yet visible when loading
+     */
+    static PriceTimeline of(BigDecimal currentPrice, List<PricePoint> points, LocalDateTime validBefore) {
+        LocalDateTime[] changeTimes = new LocalDateTime[points.size()];
+        BigDecimal[] prices = new BigDecimal[points.size()];
+        for (int i = 0; i < points.size(); i++) {
+            changeTimes[i] = points.get(i).effectiveDate();
+            prices[i] = points.get(i).newPrice();
+        }
+        BigDecimal basePrice = points.isEmpty() ? currentPrice : points.get(0).previousPrice();
+        return new PriceTimeline(basePrice, changeTimes, prices, validBefore);
+    }
+
+    /**
+     * Whether the timeline is known to be complete up to the given instant
+     */
+    boolean covers(LocalDateTime at) {
+        return at.isBefore(validBefore);
+    }
+
+    /**
+     * Price in effect at the given instant
+     */
+    public PriceAt priceAt(LocalDateTime at) {
+        // Last change effective at or before the instant
+        int low = 0;
+        int high = changeTimes.length - 1;
+        int found = -1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (changeTimes[mid].isAfter(at)) {
+                high = mid - 1;
+            } else {
+                found = mid;
+                low = mid + 1;
+            }
+        }
+        return found < 0 ? new PriceAt(basePrice, null) : new PriceAt(prices[found], changeTimes[found]);
+    }
+
+    /**
+     * A resolved price and the instant it took effect, null for the price before any recorded change
+     */
+    public record PriceAt(BigDecimal price, LocalDateTime effectiveFrom) {
+    }
+}
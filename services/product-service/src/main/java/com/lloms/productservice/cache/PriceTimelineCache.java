@@ -0,0 +1,89 @@
+package com.lloms.productservice.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.lloms.productservice.event.ProductChangedEvent;
+import com.lloms.productservice.event.ProductChangedEvent.ProductChange;
+import com.lloms.productservice.repository.PriceHistoryRepository;
+import com.lloms.productservice.repository.ProductRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Bounded in-memory cache of product price timelines for as-of price lookups.
+ * History is append-only, so a loaded timeline stays correct for every instant before it
+ * was loaded; later instants reload it. Local price changes also invalidate it on commit.
+ */
+@Component
+@Slf4j
+public class PriceTimelineCache {
+
+    /**
+     * A price change written just before a load may still be uncommitted, so loads only
+     * vouch for instants older than this
+     */
+    private static final Duration COMMIT_LAG = Duration.ofMinutes(1);
+
+    private final PriceHistoryRepository priceHistoryRepository;
+    private final ProductRepository productRepository;
+    private final Cache<Long, PriceTimeline> timelines;
+
+    public PriceTimelineCache(PriceHistoryRepository priceHistoryRepository, ProductRepository productRepository,
+            MeterRegistry meterRegistry,
+            @Value("${app.price-history.cache.maximum-size:10000}") long maximumSize,
+            @Value("${app.price-history.cache.ttl:30m}") Duration ttl) {
+        this.priceHistoryRepository = priceHistoryRepository;
+        this.productRepository = productRepository;
+        this.timelines = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterAccess(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, timelines, "price.timeline");
+    }
+
+    /**
+     * Resolves the price of a product at the given instant
+     *
+     * @return the price, or empty if the product does not exist
+     */
+    public Optional<PriceTimeline.PriceAt> priceAt(Long productId, LocalDateTime at) {
+        PriceTimeline timeline = timelines.get(productId, this::load);
+        if (timeline != null && !timeline.covers(at)) {
+            timeline = load(productId);
+            if (timeline != null) {
+                timelines.put(productId, timeline);
+            }
+        }
+        return Optional.ofNullable(timeline).map(loaded -> loaded.priceAt(at));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        event.getChanges().stream()
+                .map(ProductChange::getProductId)
+                .forEach(timelines::invalidate);
+    }
+
+    private PriceTimeline load(Long productId) {
+        LocalDateTime validBefore = LocalDateTime.now().minus(COMMIT_LAG);
+        // Current price first: a change committing in between then shows up in the history read
+        BigDecimal currentPrice = productRepository.findPriceById(productId).orElse(null);
+        if (currentPrice == null) {
+            return null;
+        }
+        PriceTimeline timeline = PriceTimeline.of(currentPrice, priceHistoryRepository.findTimeline(productId),
+                validBefore);
+        log.debug("Loaded price timeline for product ID: {}", productId);
+        return timeline;
+    }
+}
@@ -0,0 +1,41 @@
+package com.lloms.productservice.cache;
+
+import com.lloms.productservice.event.ProductChangedEvent;
+import com.lloms.productservice.event.ProductChangedEvent.ProductChange;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Evicts only the id, SKU and barcode entries of changed products once the write has committed,
+ * instead of flushing the whole "products" cache. Newly created products are skipped,
+ * as lookups of unknown products are never cached.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ProductCacheEvictor {
+
+    private final CacheManager cacheManager;
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        Cache cache = cacheManager.getCache(ProductCacheKeys.CACHE_NAME);
+        if (cache == null) {
+            return;
+        }
+
+        for (ProductChange change : event.getChanges()) {
+            if (change.isCreated()) {
+                continue;
+            }
+            for (Object key : ProductCacheKeys.keysOf(change)) {
+                cache.evict(key);
+            }
+            log.debug("Evicted cache entries for product ID: {}", change.getProductId());
+        }
+    }
+}
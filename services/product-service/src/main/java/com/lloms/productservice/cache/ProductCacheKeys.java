@@ -0,0 +1,73 @@
+package com.lloms.productservice.cache;
+
+import com.lloms.productservice.event.ProductChangedEvent.ProductChange;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Key layout of the "products" cache.
+ * Must stay in sync with the @Cacheable key expressions in ProductServiceImpl.
+ */
+public final class ProductCacheKeys {
+
+    public static final String CACHE_NAME = "products";
+
+    public static final String SKU_PREFIX = "sku:";
+    public static final String BARCODE_PREFIX = "barcode:";
+
+    public static final String FAMILY_ID = "id";
+    public static final String FAMILY_SKU = "sku";
+    public static final String FAMILY_BARCODE = "barcode";
+
+    private ProductCacheKeys() {
+    }
+
+    public static String sku(String sku) {
+        return SKU_PREFIX + sku;
+    }
+
+    public static String barcode(String barcode) {
+        return BARCODE_PREFIX + barcode;
+    }
+
+    /**
+     * Key family used to tag cache metrics
+     */
+    public static String family(Object key) {
+        if (key instanceof String value) {
+            if (value.startsWith(SKU_PREFIX)) {
+                return FAMILY_SKU;
+            }
+            if (value.startsWith(BARCODE_PREFIX)) {
+                return FAMILY_BARCODE;
+            }
+        }
+        return FAMILY_ID;
+    }
+
+    /**
+     * All keys that may hold a stale entry for the given change, old and new SKU/barcode included
+     */
+    public static Set<Object> keysOf(ProductChange change) {
+        Set<Object> keys = new LinkedHashSet<>();
+        keys.add(change.getProductId());
+        addSku(keys, change.getPreviousSku());
+        addSku(keys, change.getSku());
+        addBarcode(keys, change.getPreviousBarcode());
+        addBarcode(keys, change.getBarcode());
+        return keys;
+    }
+
+    private static void addSku(Set<Object> keys, String sku) {
+        if (sku != null) {
+            keys.add(sku(sku));
+        }
+    }
+
+    private static void addBarcode(Set<Object> keys, String barcode) {
+        if (barcode != null) {
+            keys.add(barcode(barcode));
+        }
+    }
+}
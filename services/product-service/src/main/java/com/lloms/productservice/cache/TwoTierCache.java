@@ -0,0 +1,188 @@
+package com.lloms.productservice.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Near cache: an in-process Caffeine L1 in front of a shared Redis L2.
+ * Reads are served from L1 when possible, writes and evictions go to both tiers,
+ * and evictions are broadcast so other replicas drop their L1 copy.
+ * Concurrent misses on the same key share one load (single-flight), so an evicted
+ * popular product is read from the database once per replica rather than once per request.
+ */
+public class TwoTierCache extends AbstractValueAdaptingCache {
+
+    private final String name;
+    private final Cache<Object, Object> local;
+    private final org.springframework.cache.Cache remote;
+    private final NearCacheInvalidationPublisher invalidationPublisher;
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Counter> coalescedCounters = new ConcurrentHashMap<>();
+
+    // Bumped on every invalidation; an L2 read only populates L1 if no invalidation raced with it
+    private final AtomicLong invalidationEpoch = new AtomicLong();
+
+    // Loads in progress; an invalidation drops the key, so later callers do not join a load that may be stale
+    private final Map<Object, CompletableFuture<Object>> loads = new ConcurrentHashMap<>();
+
+    public TwoTierCache(String name, Cache<Object, Object> local, org.springframework.cache.Cache remote,
+            NearCacheInvalidationPublisher invalidationPublisher, MeterRegistry meterRegistry) {
+        super(false);
+        this.name = name;
+        this.local = local;
+        this.remote = remote;
+        this.invalidationPublisher = invalidationPublisher;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return local;
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        Object value = local.getIfPresent(key);
+        if (value != null) {
+            return value;
+        }
+
+        long epoch = invalidationEpoch.get();
+        ValueWrapper wrapper = remote.get(key);
+        if (wrapper == null || wrapper.get() == null) {
+            return null;
+        }
+
+        value = wrapper.get();
+        if (invalidationEpoch.get() == epoch) {
+            local.put(key, value);
+        }
+        return value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        Object value = lookup(key);
+        if (value != null) {
+            return (T) value;
+        }
+
+        CompletableFuture<Object> load = new CompletableFuture<>();
+        CompletableFuture<Object> inFlight = loads.putIfAbsent(key, load);
+        if (inFlight != null) {
+            coalescedCounter(key).increment();
+            return (T) await(key, valueLoader, inFlight);
+        }
+
+        try {
+            // Another caller's load may have completed between the lookup and claiming the key
+            value = local.getIfPresent(key);
+            T loaded = value != null ? (T) value : load(key, valueLoader);
+            load.complete(loaded);
+            return loaded;
+        } catch (Throwable ex) {
+            // Errors too, or callers that joined this load would wait on it forever
+            load.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            loads.remove(key, load);
+        }
+    }
+
+    private <T> T load(Object key, Callable<T> valueLoader) {
+        long epoch = invalidationEpoch.get();
+        T loaded;
+        try {
+            loaded = valueLoader.call();
+        } catch (Exception ex) {
+            throw new ValueRetrievalException(key, valueLoader, ex);
+        }
+        // An invalidation during the load means the value may predate the write behind it,
+        // so it is returned to this caller but kept out of both tiers
+        if (loaded != null && invalidationEpoch.get() == epoch) {
+            remote.put(key, loaded);
+            if (invalidationEpoch.get() == epoch) {
+                local.put(key, loaded);
+            } else {
+                // The eviction landed while this value was being written to L2; take it back
+                remote.evict(key);
+            }
+        }
+        return loaded;
+    }
+
+    private Object await(Object key, Callable<?> valueLoader, CompletableFuture<Object> inFlight) {
+        try {
+            return inFlight.join();
+        } catch (CompletionException ex) {
+            // Surface the loader's own exception, as if this caller had run the load itself
+            Throwable cause = ex.getCause() instanceof ValueRetrievalException retrieval && retrieval.getCause() != null
+                    ? retrieval.getCause()
+                    : ex.getCause();
+            throw new ValueRetrievalException(key, valueLoader, cause);
+        }
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        if (value == null) {
+            return;
+        }
+        remote.put(key, value);
+        local.put(key, value);
+    }
+
+    @Override
+    public void evict(Object key) {
+        remote.evict(key);
+        invalidateLocal(key);
+        invalidationPublisher.publishEvict(name, key);
+    }
+
+    @Override
+    public void clear() {
+        remote.clear();
+        invalidateLocalAll();
+        invalidationPublisher.publishClear(name);
+    }
+
+    /**
+     * Drops an entry from this replica's L1 only, used when another replica evicted it
+     */
+    void invalidateLocal(Object key) {
+        invalidationEpoch.incrementAndGet();
+        loads.remove(key);
+        local.invalidate(key);
+    }
+
+    void invalidateLocalAll() {
+        invalidationEpoch.incrementAndGet();
+        loads.clear();
+        local.invalidateAll();
+    }
+
+    private Counter coalescedCounter(Object key) {
+        return coalescedCounters.computeIfAbsent(ProductCacheKeys.family(key), family -> Counter
+                .builder("product.cache.coalesced")
+                .description("Cache misses served by another caller's load instead of their own")
+                .tag("cache", name)
+                .tag("family", family)
+                .register(meterRegistry));
+    }
+}
@@ -0,0 +1,100 @@
+package com.lloms.productservice.config;
+
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lloms.productservice.cache.MeteredCacheManager;
+import com.lloms.productservice.cache.NearCacheInvalidationPublisher;
+import com.lloms.productservice.cache.NearCacheManager;
+import com.lloms.productservice.cache.ProductCacheKeys;
+import com.lloms.productservice.index.ProductIndexMaintainer;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Cache configuration for Product Service
+ * Redis-backed caches with an in-process near cache for product lookups,
+ * wrapped with per key family hit/miss/eviction metrics
+ */
+@Configuration
+public class CacheConfig {
+
+    @Value("${spring.cache.redis.time-to-live:600000}")
+    private long timeToLive;
+
+    @Value("${app.cache.near.maximum-size:20000}")
+    private long nearCacheMaximumSize;
+
+    @Value("${app.cache.near.ttl:30s}")
+    private Duration nearCacheTtl;
+
+    @Value("${app.cache.near.invalidation-channel:product-service:cache-invalidation}")
+    private String invalidationChannel;
+
+    @Value("${app.index.change-channel:product-service:index-changes}")
+    private String indexChangeChannel;
+
+    @Bean
+    public RedisCacheConfiguration redisCacheConfiguration(ObjectMapper objectMapper) {
+        ObjectMapper cacheObjectMapper = objectMapper.copy();
+        cacheObjectMapper.activateDefaultTyping(cacheObjectMapper.getPolymorphicTypeValidator(),
+                ObjectMapper.DefaultTyping.NON_FINAL, JsonTypeInfo.As.PROPERTY);
+
+        return RedisCacheConfiguration.defaultCacheConfig()
+                .entryTtl(Duration.ofMillis(timeToLive))
+                .disableCachingNullValues()
+                .serializeValuesWith(RedisSerializationContext.SerializationPair
+                        .fromSerializer(new GenericJackson2JsonRedisSerializer(cacheObjectMapper)));
+    }
+
+    @Bean
+    public NearCacheInvalidationPublisher nearCacheInvalidationPublisher(StringRedisTemplate redisTemplate) {
+        return new NearCacheInvalidationPublisher(redisTemplate, invalidationChannel);
+    }
+
+    @Bean
+    public NearCacheManager nearCacheManager(RedisConnectionFactory connectionFactory,
+            RedisCacheConfiguration redisCacheConfiguration,
+            NearCacheInvalidationPublisher invalidationPublisher,
+            MeterRegistry meterRegistry) {
+        RedisCacheManager redisCacheManager = RedisCacheManager.builder(connectionFactory)
+                .cacheDefaults(redisCacheConfiguration)
+                .build();
+        redisCacheManager.initializeCaches();
+
+        return new NearCacheManager(redisCacheManager, Set.of(ProductCacheKeys.CACHE_NAME),
+                nearCacheMaximumSize, nearCacheTtl, invalidationPublisher, meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public CacheManager cacheManager(NearCacheManager nearCacheManager, MeterRegistry meterRegistry) {
+        return new MeteredCacheManager(nearCacheManager, meterRegistry);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.cache.near.listener.enabled", matchIfMissing = true)
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(RedisConnectionFactory connectionFactory,
+            NearCacheManager nearCacheManager, ProductIndexMaintainer productIndexMaintainer) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(nearCacheManager, new ChannelTopic(invalidationChannel));
+        container.addMessageListener(productIndexMaintainer, new ChannelTopic(indexChangeChannel));
+        return container;
+    }
+}
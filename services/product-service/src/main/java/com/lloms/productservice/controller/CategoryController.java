@@ -0,0 +1,55 @@
+package com.lloms.productservice.controller;
+
+import com.lloms.productservice.dto.response.CategoryNodeResponse;
+import com.lloms.productservice.service.CategoryService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * REST Controller for browsing the category tree
+ */
+@RestController
+@RequestMapping("/categories")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Category Browsing", description = "APIs for browsing the category tree")
+public class CategoryController {
+
+    private final CategoryService categoryService;
+
+    @GetMapping("/tree")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER') or hasRole('CASHIER')")
+    @Operation(summary = "Get category tree", description = "Retrieves all root categories with their subcategories")
+    public ResponseEntity<List<CategoryNodeResponse>> getCategoryTree() {
+
+        List<CategoryNodeResponse> response = categoryService.getCategoryTree();
+
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/{id}/tree")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER') or hasRole('CASHIER')")
+    @Operation(summary = "Get category subtree", description = "Retrieves a category with all its subcategories")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Category found"),
+            @ApiResponse(responseCode = "404", description = "Category not found"),
+            @ApiResponse(responseCode = "403", description = "Access denied")
+    })
+    public ResponseEntity<CategoryNodeResponse> getCategorySubtree(
+            @Parameter(description = "Category ID") @PathVariable Long id) {
+
+        CategoryNodeResponse response = categoryService.getCategorySubtree(id);
+
+        return ResponseEntity.ok(response);
+    }
+}
@@ -1,29 +1,60 @@
 package com.lloms.productservice.controller;
 
+import com.lloms.productservice.dto.paginated.CursorPageResponse;
+import com.lloms.productservice.dto.request.BatchStockAdjustmentRequest;
 import com.lloms.productservice.dto.request.CreateProductRequest;
+import com.lloms.productservice.dto.request.ExportFormat;
+import com.lloms.productservice.dto.request.StockReservationRequest;
 import com.lloms.productservice.dto.request.UpdateProductRequest;
+import com.lloms.productservice.dto.response.BatchStockAdjustmentResponse;
+import com.lloms.productservice.dto.response.PriceAsOfResponse;
+import com.lloms.productservice.dto.response.ProductImportResponse;
 import com.lloms.productservice.dto.response.ProductResponse;
+import com.lloms.productservice.dto.response.StockAsOfResponse;
+import com.lloms.productservice.dto.response.StockReservationResponse;
 import com.lloms.productservice.entity.enums.ProductStatus;
+import com.lloms.productservice.index.ProductSnapshot;
+import com.lloms.productservice.repository.CatalogVersion;
+import com.lloms.productservice.service.ProductImportService;
 import com.lloms.productservice.service.ProductService;
+import com.lloms.productservice.service.ProductSyncService;
+import com.lloms.productservice.snapshot.CatalogSnapshot;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.List;
+import java.util.function.Supplier;
 
 /**
  * REST Controller for Product operations
@@ -35,7 +66,22 @@ import java.util.List;
 @Tag(name = "Product Management", description = "APIs for managing products")
 public class ProductController {
 
+    /**
+     * Clients may keep responses but must revalidate them; this also stops the default no-store header
+     */
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
+    /**
+     * Tomcat request attributes for handing a file to the connector, which copies it to the socket with sendfile
+     */
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
     private final ProductService productService;
+    private final ProductImportService productImportService;
+    private final ProductSyncService productSyncService;
 
     @PostMapping
     @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
@@ -94,7 +140,7 @@ public class ProductController {
 
         ProductResponse response = productService.getProductById(id);
 
-        return ResponseEntity.ok(response);
+        return withValidators(response);
     }
 
     @GetMapping("/sku/{sku}")
@@ -107,7 +153,7 @@ public class ProductController {
 
         ProductResponse response = productService.getProductBySku(sku);
 
-        return ResponseEntity.ok(response);
+        return withValidators(response);
     }
 
     @GetMapping("/barcode/{barcode}")
@@ -120,34 +166,156 @@ public class ProductController {
 
         ProductResponse response = productService.getProductByBarcode(barcode);
 
+        return withValidators(response);
+    }
+
+    @GetMapping("/scan/{code}")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER') or hasRole('CASHIER')")
+    @Operation(summary = "Scan product", description = "Resolves a barcode or SKU from the in-memory scan index")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Product found"),
+            @ApiResponse(responseCode = "404", description = "Product not found"),
+            @ApiResponse(responseCode = "403", description = "Access denied")
+    })
+    public ResponseEntity<ProductSnapshot> scanProduct(
+            @Parameter(description = "Barcode or SKU") @PathVariable String code) {
+
+        ProductSnapshot response = productService.scanProduct(code);
+
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/suggest")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER') or hasRole('CASHIER')")
+    @Operation(summary = "Suggest products",
+            description = "Autocompletes product names, SKUs and categories from the in-memory suggest index")
+    public ResponseEntity<List<ProductSnapshot>> suggestProducts(
+            @Parameter(description = "Text typed so far") @RequestParam String q,
+            @Parameter(description = "Outlet ID") @RequestParam(required = false) Long outletId,
+            @Parameter(description = "Maximum number of suggestions, up to 50") @RequestParam(defaultValue = "10") int limit) {
+
+        List<ProductSnapshot> response = productService.suggestProducts(q, outletId, Math.min(Math.max(limit, 1), 50));
+
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping("/changes")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER') or hasRole('CASHIER')")
+    @Operation(summary = "Stream catalog changes",
+            description = "Streams products created, updated or deleted after a watermark as NDJSON for POS sync; "
+                    + "resume from the updatedAt and id of the last record received")
+    public ResponseEntity<StreamingResponseBody> getCatalogChanges(
+            @Parameter(description = "Watermark timestamp, omit for a full sync")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since,
+            @Parameter(description = "Watermark product ID") @RequestParam(required = false) Long afterId,
+            @Parameter(description = "Outlet ID") @RequestParam(required = false) Long outletId,
+            @Parameter(description = "Maximum number of records, up to 100000")
+            @RequestParam(defaultValue = "10000") int limit) {
+
+        StreamingResponseBody body = outputStream -> productSyncService.streamChanges(since, afterId, outletId,
+                Math.min(Math.max(limit, 1), 100_000), outputStream);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(ExportFormat.NDJSON.getContentType()))
+                .body(body);
+    }
+
+    @GetMapping("/snapshot")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER') or hasRole('CASHIER')")
+    @Operation(summary = "Download catalog snapshot",
+            description = "Downloads the compressed binary catalog of an outlet for offline POS bootstrap; "
+                    + "continue with the change feed from the watermark in its trailer")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Snapshot downloaded"),
+            @ApiResponse(responseCode = "304", description = "Snapshot unchanged"),
+            @ApiResponse(responseCode = "404", description = "Outlet not found"),
+            @ApiResponse(responseCode = "403", description = "Access denied")
+    })
+    public ResponseEntity<Resource> getCatalogSnapshot(
+            @Parameter(description = "Outlet ID") @RequestParam Long outletId,
+            HttpServletRequest request,
+            WebRequest webRequest) throws IOException {
+
+        CatalogSnapshot snapshot = productSyncService.getCatalogSnapshot(outletId);
+        if (webRequest.checkNotModified(snapshot.eTag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/gzip"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("catalog-" + outletId + ".bin.gz")
+                        .build()
+                        .toString());
+        if (request.getHeader(HttpHeaders.RANGE) == null
+                && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, snapshot.file().toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, 0L);
+            request.setAttribute(SENDFILE_END, snapshot.size());
+            return builder.contentLength(snapshot.size()).build();
+        }
+        // Range requests and other containers get Spring's resource handling
+        return builder.body(new FileSystemResource(snapshot.file()));
+    }
+
     @GetMapping
     @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER') or hasRole('CASHIER')")
     @Operation(summary = "Get all products", description = "Retrieves all products with pagination")
     public ResponseEntity<Page<ProductResponse>> getAllProducts(
-            @PageableDefault(size = 20) Pageable pageable) {
+            @PageableDefault(size = 20) Pageable pageable,
+            WebRequest webRequest) {
 
         log.debug("Getting all products with pagination: {}", pageable);
 
-        Page<ProductResponse> response = productService.getAllProducts(pageable);
+        return ifCatalogModified(webRequest, () -> productService.getAllProducts(pageable));
+    }
 
-        return ResponseEntity.ok(response);
+    @GetMapping("/scroll")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER') or hasRole('CASHIER')")
+    @Operation(summary = "Scroll products",
+            description = "Keyset paginated product listing with optional filters; pass nextCursor to continue")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Products retrieved"),
+            @ApiResponse(responseCode = "400", description = "Invalid sort or cursor"),
+            @ApiResponse(responseCode = "403", description = "Access denied")
+    })
+    public ResponseEntity<CursorPageResponse<ProductResponse>> scrollProducts(
+            @Parameter(description = "Category ID") @RequestParam(required = false) Long categoryId,
+            @Parameter(description = "Outlet ID") @RequestParam(required = false) Long outletId,
+            @Parameter(description = "Product status") @RequestParam(required = false) ProductStatus status,
+            @Parameter(description = "Minimum price") @RequestParam(required = false) BigDecimal minPrice,
+            @Parameter(description = "Maximum price") @RequestParam(required = false) BigDecimal maxPrice,
+            @Parameter(description = "Sort property: id, name, price, stockQuantity, createdAt or updatedAt")
+            @RequestParam(defaultValue = "id") String sort,
+            @Parameter(description = "Sort direction") @RequestParam(defaultValue = "ASC") Sort.Direction direction,
+            @Parameter(description = "Page size, up to 500") @RequestParam(defaultValue = "20") int size,
+            @Parameter(description = "Continuation token from the previous page") @RequestParam(required = false) String cursor,
+            WebRequest webRequest) {
+
+        log.debug("Scrolling products - categoryId: {}, outletId: {}, status: {}, sort: {} {}",
+                categoryId, outletId, status, sort, direction);
+
+        return ifCatalogModified(webRequest, () -> productService.scrollProducts(categoryId, outletId, status,
+                minPrice, maxPrice, sort, direction, Math.min(Math.max(size, 1), 500), cursor));
     }
 
     @GetMapping("/category/{categoryId}")
     @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER') or hasRole('CASHIER')")
-    @Operation(summary = "Get products by category", description = "Retrieves products by category ID")
+    @Operation(summary = "Get products by category",
+            description = "Retrieves products by category ID, optionally including all subcategories")
     public ResponseEntity<Page<ProductResponse>> getProductsByCategory(
             @Parameter(description = "Category ID") @PathVariable Long categoryId,
-            @PageableDefault(size = 20) Pageable pageable) {
+            @Parameter(description = "Include products of all subcategories")
+            @RequestParam(defaultValue = "false") boolean includeSubcategories,
+            @PageableDefault(size = 20) Pageable pageable,
+            WebRequest webRequest) {
 
-        log.debug("Getting products by category ID: {}", categoryId);
+        log.debug("Getting products by category ID: {}, including subcategories: {}", categoryId,
+                includeSubcategories);
 
-        Page<ProductResponse> response = productService.getProductsByCategory(categoryId, pageable);
-
-        return ResponseEntity.ok(response);
+        return ifCatalogModified(webRequest, () -> includeSubcategories
+                ? productService.getProductsInCategoryTree(categoryId, pageable)
+                : productService.getProductsByCategory(categoryId, pageable));
     }
 
     @GetMapping("/outlet/{outletId}")
@@ -155,13 +323,12 @@ public class ProductController {
     @Operation(summary = "Get products by outlet", description = "Retrieves products by outlet ID")
     public ResponseEntity<Page<ProductResponse>> getProductsByOutlet(
             @Parameter(description = "Outlet ID") @PathVariable Long outletId,
-            @PageableDefault(size = 20) Pageable pageable) {
+            @PageableDefault(size = 20) Pageable pageable,
+            WebRequest webRequest) {
 
         log.debug("Getting products by outlet ID: {}", outletId);
 
-        Page<ProductResponse> response = productService.getProductsByOutlet(outletId, pageable);
-
-        return ResponseEntity.ok(response);
+        return ifCatalogModified(webRequest, () -> productService.getProductsByOutlet(outletId, pageable));
     }
 
     @GetMapping("/status/{status}")
@@ -169,27 +336,26 @@ public class ProductController {
     @Operation(summary = "Get products by status", description = "Retrieves products by status")
     public ResponseEntity<Page<ProductResponse>> getProductsByStatus(
             @Parameter(description = "Product status") @PathVariable ProductStatus status,
-            @PageableDefault(size = 20) Pageable pageable) {
+            @PageableDefault(size = 20) Pageable pageable,
+            WebRequest webRequest) {
 
         log.debug("Getting products by status: {}", status);
 
-        Page<ProductResponse> response = productService.getProductsByStatus(status, pageable);
-
-        return ResponseEntity.ok(response);
+        return ifCatalogModified(webRequest, () -> productService.getProductsByStatus(status, pageable));
     }
 
     @GetMapping("/search")
     @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER') or hasRole('CASHIER')")
-    @Operation(summary = "Search products by name", description = "Searches products by name")
+    @Operation(summary = "Search products by name",
+            description = "Searches products by name, ranking prefix matches first and tolerating typos")
     public ResponseEntity<Page<ProductResponse>> searchProductsByName(
             @Parameter(description = "Product name to search") @RequestParam String name,
-            @PageableDefault(size = 20) Pageable pageable) {
+            @PageableDefault(size = 20) Pageable pageable,
+            WebRequest webRequest) {
 
         log.debug("Searching products by name: {}", name);
 
-        Page<ProductResponse> response = productService.searchProductsByName(name, pageable);
-
-        return ResponseEntity.ok(response);
+        return ifCatalogModified(webRequest, () -> productService.searchProductsByName(name, pageable));
     }
 
     @GetMapping("/price-range")
@@ -198,13 +364,13 @@ public class ProductController {
     public ResponseEntity<Page<ProductResponse>> getProductsByPriceRange(
             @Parameter(description = "Minimum price") @RequestParam BigDecimal minPrice,
             @Parameter(description = "Maximum price") @RequestParam BigDecimal maxPrice,
-            @PageableDefault(size = 20) Pageable pageable) {
+            @PageableDefault(size = 20) Pageable pageable,
+            WebRequest webRequest) {
 
         log.debug("Getting products by price range: {} - {}", minPrice, maxPrice);
 
-        Page<ProductResponse> response = productService.getProductsByPriceRange(minPrice, maxPrice, pageable);
-
-        return ResponseEntity.ok(response);
+        return ifCatalogModified(webRequest, () ->
+                productService.getProductsByPriceRange(minPrice, maxPrice, pageable));
     }
 
     @GetMapping("/criteria")
@@ -215,37 +381,84 @@ public class ProductController {
             @Parameter(description = "Outlet ID") @RequestParam(required = false) Long outletId,
             @Parameter(description = "Product status") @RequestParam(required = false) ProductStatus status,
             @Parameter(description = "Product name") @RequestParam(required = false) String name,
-            @PageableDefault(size = 20) Pageable pageable) {
+            @PageableDefault(size = 20) Pageable pageable,
+            WebRequest webRequest) {
 
         log.debug("Getting products by criteria - categoryId: {}, outletId: {}, status: {}, name: {}",
                 categoryId, outletId, status, name);
 
-        Page<ProductResponse> response = productService.getProductsByCriteria(categoryId, outletId, status, name,
-                pageable);
-
-        return ResponseEntity.ok(response);
+        return ifCatalogModified(webRequest, () ->
+                productService.getProductsByCriteria(categoryId, outletId, status, name, pageable));
     }
 
     @GetMapping("/low-stock")
     @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
-    @Operation(summary = "Get low stock products", description = "Retrieves products with low stock levels")
-    public ResponseEntity<List<ProductResponse>> getLowStockProducts() {
-
-        log.debug("Getting low stock products");
+    @Operation(summary = "Get low stock products",
+            description = "Retrieves products with low stock levels, lowest stock first")
+    public ResponseEntity<Page<ProductResponse>> getLowStockProducts(
+            @Parameter(description = "Outlet ID") @RequestParam(required = false) Long outletId,
+            @PageableDefault(size = 20) Pageable pageable,
+            WebRequest webRequest) {
 
-        List<ProductResponse> response = productService.getLowStockProducts();
+        log.debug("Getting low stock products for outlet ID: {}", outletId);
 
-        return ResponseEntity.ok(response);
+        return ifCatalogModified(webRequest, () -> productService.getLowStockProducts(outletId, pageable));
     }
 
     @GetMapping("/out-of-stock")
     @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
     @Operation(summary = "Get out of stock products", description = "Retrieves products that are out of stock")
-    public ResponseEntity<List<ProductResponse>> getOutOfStockProducts() {
+    public ResponseEntity<Page<ProductResponse>> getOutOfStockProducts(
+            @Parameter(description = "Outlet ID") @RequestParam(required = false) Long outletId,
+            @PageableDefault(size = 20) Pageable pageable,
+            WebRequest webRequest) {
+
+        log.debug("Getting out of stock products for outlet ID: {}", outletId);
+
+        return ifCatalogModified(webRequest, () -> productService.getOutOfStockProducts(outletId, pageable));
+    }
+
+    @PostMapping(value = "/import",
+            consumes = {"text/csv", "application/x-ndjson", MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
+    @Operation(summary = "Import products",
+            description = "Queues a bulk import of a CSV or NDJSON product catalog sent as the request body")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Import queued"),
+            @ApiResponse(responseCode = "403", description = "Access denied")
+    })
+    public ResponseEntity<ProductImportResponse> importProducts(
+            @Parameter(description = "Import format") @RequestParam(defaultValue = "CSV") ExportFormat format,
+            @Parameter(description = "Outlet ID for rows without one") @RequestParam(required = false) Long outletId,
+            InputStream content,
+            Authentication authentication) throws IOException {
+
+        log.info("Importing products as {} for outlet ID: {} by user: {}", format, outletId, authentication.getName());
+
+        ProductImportResponse response = productImportService.startImport(format, outletId, content,
+                authentication.getName());
+
+        return ResponseEntity.accepted()
+                .location(ServletUriComponentsBuilder.fromCurrentRequestUri()
+                        .path("/{jobId}")
+                        .buildAndExpand(response.getJobId())
+                        .toUri())
+                .body(response);
+    }
 
-        log.debug("Getting out of stock products");
+    @GetMapping("/import/{jobId}")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
+    @Operation(summary = "Get product import progress",
+            description = "Retrieves the progress and rejected rows of a bulk product import")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Import found"),
+            @ApiResponse(responseCode = "404", description = "Import not found or expired"),
+            @ApiResponse(responseCode = "403", description = "Access denied")
+    })
+    public ResponseEntity<ProductImportResponse> getImport(
+            @Parameter(description = "Import job ID") @PathVariable String jobId) {
 
-        List<ProductResponse> response = productService.getOutOfStockProducts();
+        ProductImportResponse response = productImportService.getImport(jobId);
 
         return ResponseEntity.ok(response);
     }
@@ -267,6 +480,87 @@ public class ProductController {
         return ResponseEntity.ok(response);
     }
 
+    @PostMapping("/{id}/stock/reservations")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER') or hasRole('CASHIER')")
+    @Operation(summary = "Reserve product stock", description = "Atomically decrements stock for a sale if enough is available")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Stock reserved"),
+            @ApiResponse(responseCode = "400", description = "Invalid input data"),
+            @ApiResponse(responseCode = "404", description = "Product not found"),
+            @ApiResponse(responseCode = "409", description = "Insufficient stock"),
+            @ApiResponse(responseCode = "403", description = "Access denied")
+    })
+    public ResponseEntity<StockReservationResponse> reserveStock(
+            @Parameter(description = "Product ID") @PathVariable Long id,
+            @Valid @RequestBody StockReservationRequest request,
+            Authentication authentication) {
+
+        log.info("Reserving {} units of product ID: {} by user: {}",
+                request.getQuantity(), id, authentication.getName());
+
+        StockReservationResponse response = productService.reserveStock(id, request, authentication.getName());
+
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/stock/batch")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
+    @Operation(summary = "Adjust stock in batch",
+            description = "Applies the stock changes of a multi-line sale or goods receipt in one transaction")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Batch processed, see per-line results"),
+            @ApiResponse(responseCode = "400", description = "Invalid input data"),
+            @ApiResponse(responseCode = "403", description = "Access denied")
+    })
+    public ResponseEntity<BatchStockAdjustmentResponse> adjustStockBatch(
+            @Valid @RequestBody BatchStockAdjustmentRequest request,
+            Authentication authentication) {
+
+        log.info("Applying batch stock adjustment of {} lines by user: {}",
+                request.getLines().size(), authentication.getName());
+
+        BatchStockAdjustmentResponse response = productService.adjustStockBatch(request, authentication.getName());
+
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/{id}/stock")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
+    @Operation(summary = "Get product stock as of",
+            description = "Resolves the stock quantity a product had at a point in time from the stock ledger")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Stock resolved"),
+            @ApiResponse(responseCode = "404", description = "Product not found"),
+            @ApiResponse(responseCode = "403", description = "Access denied")
+    })
+    public ResponseEntity<StockAsOfResponse> getStockAsOf(
+            @Parameter(description = "Product ID") @PathVariable Long id,
+            @Parameter(description = "Point in time (ISO date-time), defaults to now")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime at) {
+
+        StockAsOfResponse response = productService.getStockAsOf(id, at != null ? at : LocalDateTime.now());
+
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/{id}/price")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER') or hasRole('CASHIER')")
+    @Operation(summary = "Get product price as of", description = "Resolves the price a product had at a point in time")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Price resolved"),
+            @ApiResponse(responseCode = "404", description = "Product not found"),
+            @ApiResponse(responseCode = "403", description = "Access denied")
+    })
+    public ResponseEntity<PriceAsOfResponse> getPriceAsOf(
+            @Parameter(description = "Product ID") @PathVariable Long id,
+            @Parameter(description = "Point in time (ISO date-time), defaults to now")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime at) {
+
+        PriceAsOfResponse response = productService.getPriceAsOf(id, at != null ? at : LocalDateTime.now());
+
+        return ResponseEntity.ok(response);
+    }
+
     @PutMapping("/{id}/price")
     @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
     @Operation(summary = "Update product price", description = "Updates the price of a product")
@@ -323,12 +617,59 @@ public class ProductController {
     @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
     @Operation(summary = "Get inventory report", description = "Generates an inventory report for products")
     public ResponseEntity<List<ProductResponse>> getInventoryReport(
-            @Parameter(description = "Outlet ID (optional)") @RequestParam(required = false) Long outletId) {
+            @Parameter(description = "Outlet ID (optional)") @RequestParam(required = false) Long outletId,
+            WebRequest webRequest) {
 
         log.debug("Getting inventory report for outlet ID: {}", outletId);
 
-        List<ProductResponse> response = productService.getInventoryReport(outletId);
+        return ifCatalogModified(webRequest, () -> productService.getInventoryReport(outletId));
+    }
 
-        return ResponseEntity.ok(response);
+    @GetMapping("/inventory-report/export")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
+    @Operation(summary = "Export inventory report",
+            description = "Streams the inventory report as NDJSON or CSV without buffering it in memory")
+    public ResponseEntity<StreamingResponseBody> exportInventoryReport(
+            @Parameter(description = "Outlet ID (optional)") @RequestParam(required = false) Long outletId,
+            @Parameter(description = "Export format") @RequestParam(defaultValue = "NDJSON") ExportFormat format) {
+
+        log.info("Exporting inventory report for outlet ID: {} as {}", outletId, format);
+
+        StreamingResponseBody body = outputStream -> productService.exportInventoryReport(outletId, format, outputStream);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("inventory-report." + format.getFileExtension())
+                        .build()
+                        .toString())
+                .body(body);
+    }
+
+    /**
+     * Answers 304 when the client's copy matches the catalog version, before any listing is loaded.
+     * The version is read first, so a concurrent write can only make the body newer than its ETag.
+     * Stock levels are not covered by it; stock is read live per product rather than from listings.
+     */
+    private <T> ResponseEntity<T> ifCatalogModified(WebRequest webRequest, Supplier<T> response) {
+        CatalogVersion catalogVersion = productService.getCatalogVersion();
+        if (webRequest.checkNotModified(catalogVersion.eTag(), catalogVersion.lastModified())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(REVALIDATE).build();
+        }
+        return ResponseEntity.ok().cacheControl(REVALIDATE).body(response.get());
+    }
+
+    /**
+     * Strong validators for a single product; Spring answers a matching conditional GET with 304
+     * without serializing the body, which usually comes from the product cache
+     */
+    private static ResponseEntity<ProductResponse> withValidators(ProductResponse response) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .cacheControl(REVALIDATE)
+                .eTag("\"" + response.getId() + "-" + response.getVersion() + "\"");
+        if (response.getUpdatedAt() != null) {
+            builder.lastModified(response.getUpdatedAt().atZone(ZoneId.systemDefault()));
+        }
+        return builder.body(response);
     }
 }
@@ -0,0 +1,32 @@
+package com.lloms.productservice.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO for applying several stock changes in one transaction
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchStockAdjustmentRequest {
+
+    @NotEmpty(message = "At least one line is required")
+    @Size(max = 1000, message = "A batch must not exceed 1000 lines")
+    @Valid
+    private List<StockAdjustmentLine> lines;
+
+    @Size(max = 100, message = "Reference ID must not exceed 100 characters")
+    private String referenceId;
+
+    @Size(max = 50, message = "Reference type must not exceed 50 characters")
+    private String referenceType;
+}
@@ -0,0 +1,30 @@
+package com.lloms.productservice.dto.request;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for a single line of a batch stock adjustment
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockAdjustmentLine {
+
+    @NotNull(message = "Product ID is required")
+    private Long productId;
+
+    /**
+     * Signed stock change: negative for sales, positive for goods receipts
+     */
+    @NotNull(message = "Quantity is required")
+    private Integer quantity;
+
+    @Size(max = 500, message = "Reason must not exceed 500 characters")
+    private String reason;
+}
@@ -0,0 +1,30 @@
+package com.lloms.productservice.dto.request;
+
+import jakarta.validation.constraints.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for reserving (decrementing) stock for a sale
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockReservationRequest {
+
+    @NotNull(message = "Quantity is required")
+    @Min(value = 1, message = "Quantity must be at least 1")
+    private Integer quantity;
+
+    @Size(max = 500, message = "Reason must not exceed 500 characters")
+    private String reason;
+
+    @Size(max = 100, message = "Reference ID must not exceed 100 characters")
+    private String referenceId;
+
+    @Size(max = 50, message = "Reference type must not exceed 50 characters")
+    private String referenceType;
+}
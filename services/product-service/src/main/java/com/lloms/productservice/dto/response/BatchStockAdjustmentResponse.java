@@ -0,0 +1,22 @@
+package com.lloms.productservice.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO for batch stock adjustment response, results are in request line order
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchStockAdjustmentResponse {
+
+    private int appliedLines;
+    private int rejectedLines;
+    private List<StockAdjustmentResult> results;
+}
@@ -0,0 +1,32 @@
+package com.lloms.productservice.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DTO for a category and its subcategories, children ordered by sort order then name
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CategoryNodeResponse {
+
+    private Long id;
+    private String name;
+    private Long parentId;
+    private Integer sortOrder;
+
+    /**
+     * Distance from the root category, 0 for a root
+     */
+    private int level;
+
+    @Builder.Default
+    private List<CategoryNodeResponse> children = new ArrayList<>();
+}
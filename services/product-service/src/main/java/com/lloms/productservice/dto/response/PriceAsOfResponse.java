@@ -0,0 +1,28 @@
+package com.lloms.productservice.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * DTO for the price of a product at a point in time
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PriceAsOfResponse {
+
+    private Long productId;
+    private LocalDateTime at;
+    private BigDecimal price;
+
+    /**
+     * When this price took effect, null if it predates the recorded history
+     */
+    private LocalDateTime effectiveFrom;
+}
@@ -0,0 +1,23 @@
+package com.lloms.productservice.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for one rejected row of a bulk product import
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductImportError {
+
+    /**
+     * Line of the uploaded file the row starts on, the CSV header being line 1
+     */
+    private long line;
+    private String sku;
+    private String message;
+}
@@ -0,0 +1,37 @@
+package com.lloms.productservice.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * DTO for the progress of a bulk product import job
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductImportResponse {
+
+    public enum Status {
+        QUEUED, RUNNING, COMPLETED, FAILED
+    }
+
+    private String jobId;
+    private Status status;
+    private long processedRows;
+    private long importedRows;
+    private long rejectedRows;
+
+    /**
+     * Rejected rows in file order, capped; rejectedRows holds the full count
+     */
+    private List<ProductImportError> errors;
+    private String message;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+}
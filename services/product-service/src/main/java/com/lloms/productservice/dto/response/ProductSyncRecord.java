@@ -0,0 +1,40 @@
+package com.lloms.productservice.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.lloms.productservice.entity.enums.ProductStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Compact product row of the POS change feed. A soft-deleted product is sent as a
+ * tombstone carrying only id, version, updatedAt and deleted. Each record's
+ * (updatedAt, id) is the watermark to resume the feed from.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ProductSyncRecord {
+
+    private Long id;
+    private Long version;
+    private LocalDateTime updatedAt;
+    private Boolean deleted;
+    private String sku;
+    private String barcode;
+    private String name;
+    private BigDecimal price;
+    private Boolean isTaxable;
+    private BigDecimal taxRate;
+    private ProductStatus status;
+    private Integer stockQuantity;
+    private String unit;
+    private Long categoryId;
+    private Long outletId;
+}
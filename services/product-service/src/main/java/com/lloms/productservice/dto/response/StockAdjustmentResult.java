@@ -0,0 +1,23 @@
+package com.lloms.productservice.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for the outcome of one batch stock adjustment line
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockAdjustmentResult {
+
+    private int line;
+    private Long productId;
+    private Integer quantity;
+    private boolean applied;
+    private Integer remainingStock;
+    private String message;
+}
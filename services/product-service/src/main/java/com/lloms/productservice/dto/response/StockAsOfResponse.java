@@ -0,0 +1,22 @@
+package com.lloms.productservice.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO for the stock quantity of a product at a point in time, as recorded by the stock ledger
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockAsOfResponse {
+
+    private Long productId;
+    private LocalDateTime at;
+    private Integer stockQuantity;
+}
@@ -0,0 +1,23 @@
+package com.lloms.productservice.dto.response;
+
+import com.lloms.productservice.entity.enums.ProductStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for stock reservation response
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockReservationResponse {
+
+    private Long productId;
+    private String sku;
+    private Integer reservedQuantity;
+    private Integer remainingStock;
+    private ProductStatus status;
+}
@@ -16,11 +16,11 @@ import java.time.LocalDateTime;
 /**
  * PriceHistory entity for tracking price changes
  * Provides audit trail for product pricing
+ * The table is range partitioned by month of effective_date
  */
 @Entity
 @Table(name = "price_history", indexes = {
-        @Index(name = "idx_price_history_product", columnList = "product_id"),
-        @Index(name = "idx_price_history_date", columnList = "effective_date")
+        @Index(name = "idx_price_history_product_effective", columnList = "product_id, effective_date, id")
 })
 @Data
 @Builder
@@ -1,5 +1,6 @@
 package com.lloms.productservice.entity;
 
+import com.lloms.productservice.entity.enums.ProductStatus;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import lombok.AllArgsConstructor;
@@ -152,17 +153,35 @@ public class Product {
     }
 
     public void updateStock(Integer quantity, String reason) {
+        updateStock(quantity, reason, null);
+    }
+
+    public void updateStock(Integer quantity, String reason, String performedBy) {
         if (quantity == null || quantity == 0) {
             return;
         }
 
         this.stockQuantity += quantity;
+        recordMovement(StockMovementType.ADJUSTMENT, quantity, reason, performedBy);
+    }
+
+    /**
+     * Opens the stock ledger of a new product with its initial quantity
+     */
+    public void recordOpeningStock(String performedBy) {
+        if (stockQuantity != null && stockQuantity > 0) {
+            recordMovement(StockMovementType.INBOUND, stockQuantity, "Opening stock", performedBy);
+        }
+    }
 
-        // Create stock movement record
+    private void recordMovement(StockMovementType type, int delta, String reason, String performedBy) {
         StockMovement movement = StockMovement.builder()
                 .product(this)
-                .quantity(quantity)
+                .movementType(type)
+                .quantity(Math.abs(delta))
+                .delta(delta)
                 .reason(reason)
+                .performedBy(performedBy)
                 .build();
 
         this.stockMovements.add(movement);
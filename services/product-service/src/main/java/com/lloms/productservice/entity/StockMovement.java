@@ -13,13 +13,12 @@ import java.time.LocalDateTime;
 
 /**
  * StockMovement entity for tracking stock changes
- * Provides audit trail for inventory management
+ * Append-only ledger entry; rows are never updated, balances are compacted into stock_snapshots
  */
 @Entity
 @Table(name = "stock_movements", indexes = {
-        @Index(name = "idx_stock_movement_product", columnList = "product_id"),
-        @Index(name = "idx_stock_movement_date", columnList = "created_at"),
-        @Index(name = "idx_stock_movement_type", columnList = "movement_type")
+        @Index(name = "idx_stock_movement_product_created", columnList = "product_id, created_at"),
+        @Index(name = "idx_stock_movement_date", columnList = "created_at")
 })
 @Data
 @Builder
@@ -40,6 +39,13 @@ public class StockMovement {
     @Column(name = "quantity", nullable = false)
     private Integer quantity;
 
+    /**
+     * Signed change applied to the stock quantity, quantity is its absolute value
+     */
+    @NotNull(message = "Delta is required")
+    @Column(name = "delta", nullable = false, updatable = false)
+    private Integer delta;
+
     @NotNull(message = "Movement type is required")
     @Enumerated(EnumType.STRING)
     @Column(name = "movement_type", nullable = false)
@@ -76,6 +82,6 @@ public class StockMovement {
     }
 
     public Integer getEffectiveQuantity() {
-        return isInbound() ? quantity : -quantity;
+        return delta;
     }
 }
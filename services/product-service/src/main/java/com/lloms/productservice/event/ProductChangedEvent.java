@@ -0,0 +1,72 @@
+package com.lloms.productservice.event;
+
+import com.lloms.productservice.entity.Product;
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * Application event published when one or more products are written.
+ * Listeners run after the surrounding transaction commits.
+ */
+@Value
+public class ProductChangedEvent {
+
+    List<ProductChange> changes;
+
+    public static ProductChangedEvent of(ProductChange change) {
+        return new ProductChangedEvent(List.of(change));
+    }
+
+    public static ProductChangedEvent of(List<ProductChange> changes) {
+        return new ProductChangedEvent(List.copyOf(changes));
+    }
+
+    /**
+     * Identity of a single changed product, with its lookup keys before and after the write
+     */
+    @Value
+    public static class ProductChange {
+
+        Long productId;
+        String previousSku;
+        String previousBarcode;
+        String sku;
+        String barcode;
+
+        /**
+         * True for a newly inserted product, which cannot have any cache entry yet
+         */
+        boolean created;
+
+        /**
+         * Product that was just inserted
+         */
+        public static ProductChange created(Long productId, String sku, String barcode) {
+            return new ProductChange(productId, null, null, sku, barcode, true);
+        }
+
+        /**
+         * Change that did not touch the SKU or barcode
+         */
+        public static ProductChange of(Product product) {
+            return new ProductChange(product.getId(), product.getSku(), product.getBarcode(),
+                    product.getSku(), product.getBarcode(), false);
+        }
+
+        /**
+         * Change applied without loading the entity, SKU and barcode unchanged
+         */
+        public static ProductChange of(Long productId, String sku, String barcode) {
+            return new ProductChange(productId, sku, barcode, sku, barcode, false);
+        }
+
+        /**
+         * Change where the SKU or barcode may have been replaced
+         */
+        public static ProductChange of(Product product, String previousSku, String previousBarcode) {
+            return new ProductChange(product.getId(), previousSku, previousBarcode,
+                    product.getSku(), product.getBarcode(), false);
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.lloms.productservice.exception;
+
+/**
+ * Exception thrown when a bulk import job is unknown or has expired
+ */
+public class ImportJobNotFoundException extends RuntimeException {
+    public ImportJobNotFoundException(String message) {
+        super(message);
+    }
+}
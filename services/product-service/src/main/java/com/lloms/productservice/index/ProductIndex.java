@@ -0,0 +1,22 @@
+package com.lloms.productservice.index;
+
+import java.util.Collection;
+
+/**
+ * In-memory index over the product catalog, kept up to date by ProductIndexMaintainer
+ */
+public interface ProductIndex {
+
+    /**
+     * Replaces the whole index content, called once the catalog has been bulk-loaded
+     */
+    void rebuild(Collection<ProductSnapshot> snapshots);
+
+    /**
+     * Applies a batch of committed changes
+     *
+     * @param upserts    new or updated products
+     * @param removedIds products that were deleted
+     */
+    void apply(Collection<ProductSnapshot> upserts, Collection<Long> removedIds);
+}
@@ -0,0 +1,219 @@
+package com.lloms.productservice.index;
+
+import com.lloms.productservice.entity.Product;
+import com.lloms.productservice.event.ProductChangedEvent;
+import com.lloms.productservice.event.ProductChangedEvent.ProductChange;
+import com.lloms.productservice.mapper.ProductMapper;
+import com.lloms.productservice.repository.ProductRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk-loads the catalog into every ProductIndex at startup and re-reads
+ * changed products after each committed write.
+ * Changed IDs are queued and re-read in batches on a dedicated thread, so the
+ * writing request neither waits for nor takes a second connection for the re-read.
+ * Changed product IDs are broadcast to the other replicas over Redis pub/sub, which
+ * re-read them the same way. Message format: {@code <sender>|<id>,<id>,...}.
+ */
+@Component
+@Slf4j
+public class ProductIndexMaintainer implements MessageListener {
+
+    private static final int LOAD_BATCH_SIZE = 1000;
+    private static final int REFRESH_BATCH_SIZE = 500;
+
+    private final ProductRepository productRepository;
+    private final ProductMapper productMapper;
+    private final List<ProductIndex> indexes;
+    private final TransactionTemplate readOnlyTransaction;
+    private final StringRedisTemplate redisTemplate;
+    private final String channel;
+    private final String instanceId = UUID.randomUUID().toString();
+    private final ExecutorService refreshExecutor =
+            Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "product-index-refresh"));
+
+    // Guarded by "this". Changes queued while the catalog is loading wait for the indexes to be built.
+    private final Set<Long> pendingIds = new HashSet<>();
+    private boolean loaded;
+    private boolean drainScheduled;
+
+    public ProductIndexMaintainer(ProductRepository productRepository, ProductMapper productMapper,
+            List<ProductIndex> indexes, PlatformTransactionManager transactionManager,
+            StringRedisTemplate redisTemplate,
+            @Value("${app.index.change-channel:product-service:index-changes}") String channel) {
+        this.productRepository = productRepository;
+        this.productMapper = productMapper;
+        this.indexes = indexes;
+        this.redisTemplate = redisTemplate;
+        this.channel = channel;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadCatalog() {
+        long start = System.currentTimeMillis();
+        List<ProductSnapshot> snapshots = new ArrayList<>();
+        long afterId = 0L;
+
+        while (true) {
+            long cursor = afterId;
+            List<ProductSnapshot> batch = readOnlyTransaction.execute(status -> productRepository
+                    .findIndexBatch(cursor, Limit.of(LOAD_BATCH_SIZE))
+                    .stream()
+                    .map(productMapper::toSnapshot)
+                    .toList());
+            if (batch == null || batch.isEmpty()) {
+                break;
+            }
+            snapshots.addAll(batch);
+            afterId = batch.get(batch.size() - 1).getId();
+        }
+
+        synchronized (this) {
+            indexes.forEach(index -> index.rebuild(snapshots));
+            loaded = true;
+            // The batches may have been read before these writes committed; re-read them over the rebuilt indexes
+            scheduleDrain();
+        }
+        log.info("Loaded {} products into {} indexes in {} ms", snapshots.size(), indexes.size(),
+                System.currentTimeMillis() - start);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refreshExecutor.shutdown();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        Set<Long> ids = new HashSet<>();
+        for (ProductChange change : event.getChanges()) {
+            ids.add(change.getProductId());
+        }
+
+        enqueue(ids);
+        broadcast(ids);
+    }
+
+    /**
+     * Receives the IDs changed on another replica
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int separator = body.indexOf('|');
+        if (separator < 0 || body.substring(0, separator).equals(instanceId)) {
+            return;
+        }
+
+        Set<Long> ids = new HashSet<>();
+        for (String id : body.substring(separator + 1).split(",")) {
+            if (!id.isEmpty()) {
+                ids.add(Long.valueOf(id));
+            }
+        }
+        if (!ids.isEmpty()) {
+            enqueue(ids);
+        }
+    }
+
+    private synchronized void enqueue(Collection<Long> ids) {
+        pendingIds.addAll(ids);
+        scheduleDrain();
+    }
+
+    // Called holding "this"; at most one drain is queued, and it picks up everything enqueued before it runs
+    private void scheduleDrain() {
+        if (!loaded || drainScheduled || pendingIds.isEmpty()) {
+            return;
+        }
+        try {
+            refreshExecutor.execute(this::drain);
+            drainScheduled = true;
+        } catch (RejectedExecutionException ex) {
+            log.debug("Index refresh executor is shut down; dropping {} pending changes", pendingIds.size());
+        }
+    }
+
+    private void drain() {
+        while (true) {
+            Set<Long> batch = new HashSet<>();
+            synchronized (this) {
+                Iterator<Long> iterator = pendingIds.iterator();
+                while (iterator.hasNext() && batch.size() < REFRESH_BATCH_SIZE) {
+                    batch.add(iterator.next());
+                    iterator.remove();
+                }
+                if (batch.isEmpty()) {
+                    drainScheduled = false;
+                    return;
+                }
+            }
+            try {
+                refresh(batch);
+            } catch (RuntimeException ex) {
+                // Scans still fall back to the database on a miss
+                log.error("Failed to refresh indexes for products {}", batch, ex);
+            }
+        }
+    }
+
+    private void broadcast(Collection<Long> ids) {
+        String message = instanceId + '|' + ids.stream().map(String::valueOf).collect(Collectors.joining(","));
+        try {
+            redisTemplate.convertAndSend(channel, message);
+        } catch (RuntimeException ex) {
+            // Scans still fall back to the database on a miss; other lookups stay stale until the next restart
+            log.warn("Failed to broadcast index changes for products {}: {}", ids, ex.getMessage());
+        }
+    }
+
+    private void refresh(Collection<Long> ids) {
+        List<ProductSnapshot> upserts = readOnlyTransaction.execute(status -> productRepository
+                .findAllForIndexByIdIn(ids)
+                .stream()
+                .map(productMapper::toSnapshot)
+                .toList());
+        if (upserts == null) {
+            upserts = List.of();
+        }
+
+        // Soft-deleted products are filtered out by the query, so anything missing was removed
+        Set<Long> removedIds = new HashSet<>(ids);
+        upserts.forEach(snapshot -> removedIds.remove(snapshot.getId()));
+
+        for (ProductIndex index : indexes) {
+            try {
+                index.apply(upserts, removedIds);
+            } catch (RuntimeException ex) {
+                log.error("Failed to update {} for products {}", index.getClass().getSimpleName(), ids, ex);
+            }
+        }
+    }
+}
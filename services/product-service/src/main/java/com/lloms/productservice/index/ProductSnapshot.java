@@ -0,0 +1,43 @@
+package com.lloms.productservice.index;
+
+import com.lloms.productservice.entity.enums.ProductStatus;
+import lombok.Builder;
+import lombok.Value;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Compact, immutable view of a product held by the in-memory indexes.
+ * Derived monetary fields are computed once when the snapshot is built.
+ */
+@Value
+@Builder
+public class ProductSnapshot {
+
+    Long id;
+    String name;
+    String description;
+    String sku;
+    String barcode;
+    Long categoryId;
+    String categoryName;
+    Long outletId;
+    String outletName;
+    BigDecimal price;
+    BigDecimal taxAmount;
+    BigDecimal priceWithTax;
+    Integer stockQuantity;
+    Integer minStockLevel;
+    ProductStatus status;
+    String unit;
+    Long version;
+    LocalDateTime updatedAt;
+
+    /**
+     * True when this snapshot was read before the other one was written, so must not replace it
+     */
+    public boolean isOlderThan(ProductSnapshot other) {
+        return other != null && version != null && other.version != null && version < other.version;
+    }
+}
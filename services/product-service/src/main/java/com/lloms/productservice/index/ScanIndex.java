@@ -0,0 +1,260 @@
+package com.lloms.productservice.index;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Barcode/SKU lookup table for POS scanning.
+ * Open-addressing hash table (linear probing) from code to ProductSnapshot.
+ * Reads are lock-free and allocation-free; writers are serialized and publish
+ * a new table copy whenever the key set changes. Updates that keep the same
+ * SKU and barcode (stock, price, status) only swap the immutable value in place.
+ */
+@Component
+@Slf4j
+public class ScanIndex implements ProductIndex {
+
+    private static final int MIN_CAPACITY = 1024;
+
+    private volatile Table table = new Table(MIN_CAPACITY);
+    private volatile boolean ready;
+
+    // Writer-side state, guarded by "this"
+    private final Map<Long, ProductSnapshot> byId = new HashMap<>();
+
+    public ScanIndex(MeterRegistry meterRegistry) {
+        Gauge.builder("product.scan.index.size", this, index -> index.table.size)
+                .description("Number of barcode/SKU codes held by the scan index")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Looks up a product by barcode or SKU
+     *
+     * @return the snapshot, or null if the code is unknown
+     */
+    public ProductSnapshot find(String code) {
+        return table.get(code);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    @Override
+    public synchronized void rebuild(Collection<ProductSnapshot> snapshots) {
+        byId.clear();
+        for (ProductSnapshot snapshot : snapshots) {
+            byId.put(snapshot.getId(), snapshot);
+        }
+
+        Table rebuilt = new Table(capacityFor(byId.size() * 2));
+        for (ProductSnapshot snapshot : byId.values()) {
+            rebuilt.putAll(snapshot);
+        }
+        table = rebuilt;
+        ready = true;
+        log.info("Scan index built with {} codes for {} products", rebuilt.size, byId.size());
+    }
+
+    @Override
+    public synchronized void apply(Collection<ProductSnapshot> upserts, Collection<Long> removedIds) {
+        Table current = table;
+        Table next = null;
+
+        for (ProductSnapshot snapshot : upserts) {
+            if (snapshot.isOlderThan(byId.get(snapshot.getId()))) {
+                continue;
+            }
+            ProductSnapshot previous = byId.put(snapshot.getId(), snapshot);
+            if (next == null && previous != null && sameCodes(previous, snapshot)) {
+                // Same key set: publish the new immutable value in place
+                current.replace(previous, snapshot);
+                continue;
+            }
+            if (next == null) {
+                next = current.copy(capacityFor(current.size + 2 * upserts.size()));
+            }
+            if (previous != null) {
+                next.removeAll(previous);
+            }
+            next.putAll(snapshot);
+        }
+
+        for (Long removedId : removedIds) {
+            ProductSnapshot previous = byId.remove(removedId);
+            if (previous == null) {
+                continue;
+            }
+            if (next == null) {
+                next = current.copy(current.keys.length);
+            }
+            next.removeAll(previous);
+        }
+
+        if (next != null) {
+            table = next;
+        }
+    }
+
+    private static boolean sameCodes(ProductSnapshot a, ProductSnapshot b) {
+        return Objects.equals(a.getSku(), b.getSku()) && Objects.equals(a.getBarcode(), b.getBarcode());
+    }
+
+    private static int capacityFor(int codes) {
+        // Keep the load factor at or below 0.5 so probe sequences stay short
+        int capacity = MIN_CAPACITY;
+        while (capacity < codes * 2) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    private static final class Table {
+
+        final String[] keys;
+        final ProductSnapshot[] values;
+        final int mask;
+        int size;
+
+        Table(int capacity) {
+            keys = new String[capacity];
+            values = new ProductSnapshot[capacity];
+            mask = capacity - 1;
+        }
+
+        ProductSnapshot get(String code) {
+            if (code == null) {
+                return null;
+            }
+            String[] k = keys;
+            int i = slot(code);
+            while (true) {
+                String key = k[i];
+                if (key == null) {
+                    return null;
+                }
+                if (key.equals(code)) {
+                    return values[i];
+                }
+                i = (i + 1) & mask;
+            }
+        }
+
+        Table copy(int capacity) {
+            if (capacity == keys.length) {
+                Table copy = new Table(capacity);
+                System.arraycopy(keys, 0, copy.keys, 0, keys.length);
+                System.arraycopy(values, 0, copy.values, 0, values.length);
+                copy.size = size;
+                return copy;
+            }
+            Table copy = new Table(Math.max(capacity, keys.length));
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] != null) {
+                    copy.put(keys[i], values[i]);
+                }
+            }
+            return copy;
+        }
+
+        void putAll(ProductSnapshot snapshot) {
+            if (snapshot.getBarcode() != null) {
+                put(snapshot.getBarcode(), snapshot);
+            }
+            if (snapshot.getSku() != null) {
+                put(snapshot.getSku(), snapshot);
+            }
+        }
+
+        void removeAll(ProductSnapshot snapshot) {
+            if (snapshot.getBarcode() != null) {
+                remove(snapshot.getBarcode(), snapshot.getId());
+            }
+            if (snapshot.getSku() != null) {
+                remove(snapshot.getSku(), snapshot.getId());
+            }
+        }
+
+        void replace(ProductSnapshot previous, ProductSnapshot snapshot) {
+            replace(previous.getBarcode(), snapshot);
+            replace(previous.getSku(), snapshot);
+        }
+
+        private void replace(String code, ProductSnapshot snapshot) {
+            if (code == null) {
+                return;
+            }
+            int i = indexOf(code);
+            if (i >= 0 && values[i].getId().equals(snapshot.getId())) {
+                values[i] = snapshot;
+            }
+        }
+
+        private void put(String code, ProductSnapshot snapshot) {
+            int i = slot(code);
+            while (keys[i] != null) {
+                if (keys[i].equals(code)) {
+                    values[i] = snapshot;
+                    return;
+                }
+                i = (i + 1) & mask;
+            }
+            keys[i] = code;
+            values[i] = snapshot;
+            size++;
+        }
+
+        private void remove(String code, Long productId) {
+            int i = indexOf(code);
+            if (i < 0 || !values[i].getId().equals(productId)) {
+                return;
+            }
+            keys[i] = null;
+            values[i] = null;
+            size--;
+
+            // Backward-shift deletion keeps probe chains intact without tombstones
+            int j = i;
+            while (true) {
+                j = (j + 1) & mask;
+                if (keys[j] == null) {
+                    return;
+                }
+                int ideal = slot(keys[j]);
+                boolean inRange = i <= j ? (i < ideal && ideal <= j) : (i < ideal || ideal <= j);
+                if (inRange) {
+                    continue;
+                }
+                keys[i] = keys[j];
+                values[i] = values[j];
+                keys[j] = null;
+                values[j] = null;
+                i = j;
+            }
+        }
+
+        private int indexOf(String code) {
+            int i = slot(code);
+            while (keys[i] != null) {
+                if (keys[i].equals(code)) {
+                    return i;
+                }
+                i = (i + 1) & mask;
+            }
+            return -1;
+        }
+
+        private int slot(String code) {
+            int h = code.hashCode();
+            return (h ^ (h >>> 16)) & mask;
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package com.lloms.productservice.index;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Materialized low-stock and out-of-stock sets for dashboards.
+ * Each set is kept sorted by stock quantity then product ID, globally and per outlet,
+ * so a page is a walk from the most urgent product instead of a table scan. Reads are
+ * lock-free, writers are serialized; a stock change moves one entry between sets.
+ */
+@Component
+@Slf4j
+public class StockAlertIndex implements ProductIndex {
+
+    public enum StockAlert {
+        /**
+         * Stock at or below the minimum stock level, out-of-stock products included
+         */
+        LOW_STOCK,
+        OUT_OF_STOCK
+    }
+
+    private static final Comparator<Entry> MOST_URGENT_FIRST = Comparator.comparingInt(Entry::stockQuantity)
+            .thenComparingLong(Entry::productId);
+
+    private volatile AlertSets lowStock = new AlertSets();
+    private volatile AlertSets outOfStock = new AlertSets();
+    private volatile boolean ready;
+
+    // Writer-side state, guarded by "this"
+    private final Map<Long, Entry> entries = new HashMap<>();
+
+    public StockAlertIndex(MeterRegistry meterRegistry) {
+        Gauge.builder("product.stock.alert.size", this, index -> index.lowStock.all.size())
+                .tag("alert", "low_stock")
+                .description("Number of products held by the stock alert index")
+                .register(meterRegistry);
+        Gauge.builder("product.stock.alert.size", this, index -> index.outOfStock.all.size())
+                .tag("alert", "out_of_stock")
+                .description("Number of products held by the stock alert index")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns one page of product IDs with the given alert, lowest stock first
+     *
+     * @param outletId restricts results to one outlet, or null for all outlets
+     */
+    public AlertPage page(StockAlert alert, Long outletId, long offset, int limit) {
+        AlertSets sets = alert == StockAlert.OUT_OF_STOCK ? outOfStock : lowStock;
+        SortedEntries sorted = outletId != null ? sets.byOutlet.get(outletId) : sets.all;
+        if (sorted == null) {
+            return new AlertPage(List.of(), 0);
+        }
+
+        List<Long> ids = new ArrayList<>(limit);
+        Iterator<Entry> iterator = sorted.set.iterator();
+        for (long skipped = 0; skipped < offset && iterator.hasNext(); skipped++) {
+            iterator.next();
+        }
+        while (ids.size() < limit && iterator.hasNext()) {
+            ids.add(iterator.next().productId());
+        }
+        return new AlertPage(ids, sorted.size());
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    @Override
+    public synchronized void rebuild(Collection<ProductSnapshot> snapshots) {
+        AlertSets rebuiltLowStock = new AlertSets();
+        AlertSets rebuiltOutOfStock = new AlertSets();
+        entries.clear();
+        for (ProductSnapshot snapshot : snapshots) {
+            Entry entry = Entry.of(snapshot);
+            entries.put(entry.productId(), entry);
+            add(rebuiltLowStock, rebuiltOutOfStock, entry);
+        }
+        lowStock = rebuiltLowStock;
+        outOfStock = rebuiltOutOfStock;
+        ready = true;
+        log.info("Stock alert index built with {} low stock and {} out of stock products",
+                rebuiltLowStock.all.size(), rebuiltOutOfStock.all.size());
+    }
+
+    @Override
+    public synchronized void apply(Collection<ProductSnapshot> upserts, Collection<Long> removedIds) {
+        for (ProductSnapshot snapshot : upserts) {
+            Entry entry = Entry.of(snapshot);
+            Entry previous = entries.get(entry.productId());
+            if (previous != null && entry.isOlderThan(previous)) {
+                continue;
+            }
+            entries.put(entry.productId(), entry);
+            if (entry.samePosition(previous)) {
+                continue;
+            }
+            if (previous != null) {
+                remove(previous);
+            }
+            add(lowStock, outOfStock, entry);
+        }
+        for (Long productId : removedIds) {
+            Entry previous = entries.remove(productId);
+            if (previous != null) {
+                remove(previous);
+            }
+        }
+    }
+
+    private static void add(AlertSets lowStockSets, AlertSets outOfStockSets, Entry entry) {
+        if (entry.lowStock()) {
+            lowStockSets.add(entry);
+        }
+        if (entry.outOfStock()) {
+            outOfStockSets.add(entry);
+        }
+    }
+
+    private void remove(Entry entry) {
+        lowStock.remove(entry);
+        outOfStock.remove(entry);
+    }
+
+    public record AlertPage(List<Long> productIds, long total) {
+    }
+
+    /**
+     * Position of a product in the alert sets, with the version it was read at
+     */
+    private record Entry(long productId, Long outletId, int stockQuantity, boolean lowStock, boolean outOfStock,
+            Long version) {
+
+        static Entry of(ProductSnapshot snapshot) {
+            int stockQuantity = snapshot.getStockQuantity() != null ? snapshot.getStockQuantity() : 0;
+            Integer minStockLevel = snapshot.getMinStockLevel();
+            return new Entry(snapshot.getId(), snapshot.getOutletId(), stockQuantity,
+                    minStockLevel != null && stockQuantity <= minStockLevel, stockQuantity <= 0, snapshot.getVersion());
+        }
+
+        boolean isOlderThan(Entry other) {
+            return version != null && other.version != null && version < other.version;
+        }
+
+        /**
+         * Entries in the same position need no re-sorting
+         */
+        boolean samePosition(Entry other) {
+            return other != null && Objects.equals(outletId, other.outletId) && stockQuantity == other.stockQuantity
+                    && lowStock == other.lowStock && outOfStock == other.outOfStock;
+        }
+    }
+
+    private static final class AlertSets {
+
+        final SortedEntries all = new SortedEntries();
+        final Map<Long, SortedEntries> byOutlet = new ConcurrentHashMap<>();
+
+        void add(Entry entry) {
+            all.add(entry);
+            if (entry.outletId() != null) {
+                byOutlet.computeIfAbsent(entry.outletId(), key -> new SortedEntries()).add(entry);
+            }
+        }
+
+        void remove(Entry entry) {
+            all.remove(entry);
+            if (entry.outletId() != null) {
+                SortedEntries outletEntries = byOutlet.get(entry.outletId());
+                if (outletEntries != null) {
+                    outletEntries.remove(entry);
+                }
+            }
+        }
+    }
+
+    /**
+     * Skip list set with a separately tracked size, as ConcurrentSkipListSet.size() walks the whole set
+     */
+    private static final class SortedEntries {
+
+        final ConcurrentSkipListSet<Entry> set = new ConcurrentSkipListSet<>(MOST_URGENT_FIRST);
+        private final AtomicInteger size = new AtomicInteger();
+
+        void add(Entry entry) {
+            if (set.add(entry)) {
+                size.incrementAndGet();
+            }
+        }
+
+        void remove(Entry entry) {
+            if (set.remove(entry)) {
+                size.decrementAndGet();
+            }
+        }
+
+        int size() {
+            return size.get();
+        }
+    }
+}
@@ -0,0 +1,262 @@
+package com.lloms.productservice.index;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Pattern;
+
+/**
+ * Inverted index over product name, SKU, category name and description for autocomplete.
+ * Terms are kept in a sorted map so a prefix resolves to a contiguous term range; each
+ * term maps product IDs to the weight of the best field it appeared in. Reads are
+ * lock-free, writers are serialized and publish a new immutable posting map for each
+ * term they change, so a reader never sees a product half moved between terms. Updates
+ * that leave the indexed text unchanged (stock, price, status) only swap the stored snapshot.
+ */
+@Component
+@Slf4j
+public class SuggestIndex implements ProductIndex {
+
+    private static final int NAME_WEIGHT = 8;
+    private static final int SKU_WEIGHT = 4;
+    private static final int CATEGORY_WEIGHT = 2;
+    private static final int DESCRIPTION_WEIGHT = 1;
+
+    /**
+     * Upper bound of terms a single query token expands to, keeps scoring one-letter prefixes cheap
+     */
+    private static final int MAX_EXPANSIONS = 256;
+
+    // Least useful expansion first: held by the fewest products, then alphabetically last
+    private static final Comparator<Map.Entry<String, Map<Long, Integer>>> EXPANSION_PRIORITY =
+            Comparator.<Map.Entry<String, Map<Long, Integer>>>comparingInt(entry -> entry.getValue().size())
+                    .thenComparing(Map.Entry::getKey, Comparator.reverseOrder());
+
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private static final Comparator<Hit> RANKING = Comparator.comparingInt(Hit::score).reversed()
+            .thenComparingInt(hit -> hit.snapshot().getName().length())
+            .thenComparing(hit -> hit.snapshot().getId());
+
+    private volatile Postings postings = new Postings();
+    private volatile boolean ready;
+
+    public SuggestIndex(MeterRegistry meterRegistry) {
+        Gauge.builder("product.suggest.index.terms", this, index -> index.postings.terms.size())
+                .description("Number of distinct terms held by the suggest index")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Finds the best products whose indexed text has a term starting with every query token
+     *
+     * @param outletId restricts results to one outlet, or null for all outlets
+     * @return at most limit snapshots, best match first
+     */
+    public List<ProductSnapshot> suggest(String query, Long outletId, int limit) {
+        Set<String> tokens = tokenize(query);
+        if (tokens.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        Postings current = postings;
+        Map<Long, Integer> scores = null;
+        for (String token : tokens) {
+            Map<Long, Integer> matches = current.match(token);
+            if (scores == null) {
+                scores = matches;
+            } else {
+                scores.keySet().retainAll(matches.keySet());
+                scores.replaceAll((id, score) -> score + matches.get(id));
+            }
+            if (scores.isEmpty()) {
+                return List.of();
+            }
+        }
+
+        // Bounded heap with the worst retained hit on top
+        PriorityQueue<Hit> top = new PriorityQueue<>(limit + 1, RANKING.reversed());
+        for (Map.Entry<Long, Integer> entry : scores.entrySet()) {
+            Document document = current.documents.get(entry.getKey());
+            if (document == null || (outletId != null && !outletId.equals(document.snapshot().getOutletId()))) {
+                continue;
+            }
+            top.offer(new Hit(document.snapshot(), entry.getValue()));
+            if (top.size() > limit) {
+                top.poll();
+            }
+        }
+
+        List<Hit> hits = new ArrayList<>(top);
+        hits.sort(RANKING);
+        return hits.stream().map(Hit::snapshot).toList();
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    @Override
+    public synchronized void rebuild(Collection<ProductSnapshot> snapshots) {
+        Postings rebuilt = new Postings();
+        for (ProductSnapshot snapshot : snapshots) {
+            rebuilt.add(snapshot, termsOf(snapshot));
+        }
+        postings = rebuilt;
+        ready = true;
+        log.info("Suggest index built with {} terms for {} products", rebuilt.terms.size(), rebuilt.documents.size());
+    }
+
+    @Override
+    public synchronized void apply(Collection<ProductSnapshot> upserts, Collection<Long> removedIds) {
+        Postings current = postings;
+        // Copies of the posting maps this batch changes, published once it is complete
+        Map<String, Map<Long, Integer>> changedTerms = new HashMap<>();
+        Map<Long, Document> upsertedDocuments = new HashMap<>();
+        List<Long> removedDocuments = new ArrayList<>();
+
+        for (ProductSnapshot snapshot : upserts) {
+            Document previous = current.documents.get(snapshot.getId());
+            if (previous != null && snapshot.isOlderThan(previous.snapshot())) {
+                continue;
+            }
+            Map<String, Integer> terms = termsOf(snapshot);
+            if (previous != null && previous.terms().equals(terms)) {
+                upsertedDocuments.put(snapshot.getId(), new Document(snapshot, previous.terms()));
+                continue;
+            }
+            if (previous != null) {
+                previous.terms().keySet().forEach(term -> current.copyOf(changedTerms, term).remove(snapshot.getId()));
+            }
+            terms.forEach((term, weight) -> current.copyOf(changedTerms, term).put(snapshot.getId(), weight));
+            upsertedDocuments.put(snapshot.getId(), new Document(snapshot, terms));
+        }
+        for (Long removedId : removedIds) {
+            Document previous = current.documents.get(removedId);
+            if (previous != null) {
+                previous.terms().keySet().forEach(term -> current.copyOf(changedTerms, term).remove(removedId));
+                removedDocuments.add(removedId);
+            }
+        }
+
+        changedTerms.forEach((term, ids) -> {
+            if (ids.isEmpty()) {
+                current.terms.remove(term);
+            } else {
+                current.terms.put(term, Map.copyOf(ids));
+            }
+        });
+        current.documents.putAll(upsertedDocuments);
+        removedDocuments.forEach(current.documents::remove);
+    }
+
+    private static Map<String, Integer> termsOf(ProductSnapshot snapshot) {
+        Map<String, Integer> terms = new HashMap<>();
+        addTerms(terms, snapshot.getName(), NAME_WEIGHT);
+        addTerms(terms, snapshot.getSku(), SKU_WEIGHT);
+        if (snapshot.getSku() != null) {
+            // Whole SKU as well, so "ab-12" matches as typed
+            terms.merge(snapshot.getSku().toLowerCase(Locale.ROOT), SKU_WEIGHT, Math::max);
+        }
+        addTerms(terms, snapshot.getCategoryName(), CATEGORY_WEIGHT);
+        addTerms(terms, snapshot.getDescription(), DESCRIPTION_WEIGHT);
+        return terms;
+    }
+
+    private static void addTerms(Map<String, Integer> terms, String text, int weight) {
+        for (String token : tokenize(text)) {
+            terms.merge(token, weight, Math::max);
+        }
+    }
+
+    private static Set<String> tokenize(String text) {
+        Set<String> tokens = new LinkedHashSet<>();
+        if (text == null) {
+            return tokens;
+        }
+        for (String token : TOKEN_SEPARATOR.split(text.toLowerCase(Locale.ROOT))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private record Document(ProductSnapshot snapshot, Map<String, Integer> terms) {
+    }
+
+    private record Hit(ProductSnapshot snapshot, int score) {
+    }
+
+    /**
+     * Posting maps are never modified once published; writers replace them whole
+     */
+    private static final class Postings {
+
+        final ConcurrentSkipListMap<String, Map<Long, Integer>> terms = new ConcurrentSkipListMap<>();
+        final Map<Long, Document> documents = new ConcurrentHashMap<>();
+
+        // Only used while building a Postings that is not yet published
+        void add(ProductSnapshot snapshot, Map<String, Integer> documentTerms) {
+            documents.put(snapshot.getId(), new Document(snapshot, documentTerms));
+            documentTerms.forEach((term, weight) -> terms
+                    .computeIfAbsent(term, key -> new HashMap<>())
+                    .put(snapshot.getId(), weight));
+        }
+
+        Map<Long, Integer> copyOf(Map<String, Map<Long, Integer>> changedTerms, String term) {
+            return changedTerms.computeIfAbsent(term, key -> new HashMap<>(terms.getOrDefault(key, Map.of())));
+        }
+
+        /**
+         * Best score per product over the terms starting with the token; exact term matches count double
+         */
+        Map<Long, Integer> match(String token) {
+            Map<Long, Integer> scores = new HashMap<>();
+            for (Map.Entry<String, Map<Long, Integer>> entry : expansions(token)) {
+                int multiplier = entry.getKey().equals(token) ? 2 : 1;
+                entry.getValue().forEach((id, weight) -> scores.merge(id, weight * multiplier, Math::max));
+            }
+            return scores;
+        }
+
+        /**
+         * Terms starting with the token. Past MAX_EXPANSIONS, the exact term and the terms held
+         * by the most products are kept, rather than whichever come first alphabetically.
+         */
+        private Collection<Map.Entry<String, Map<Long, Integer>>> expansions(String token) {
+            PriorityQueue<Map.Entry<String, Map<Long, Integer>>> kept =
+                    new PriorityQueue<>(MAX_EXPANSIONS + 1, EXPANSION_PRIORITY);
+            Map.Entry<String, Map<Long, Integer>> exact = null;
+            for (Map.Entry<String, Map<Long, Integer>> entry
+                    : terms.subMap(token, true, token + Character.MAX_VALUE, false).entrySet()) {
+                if (entry.getKey().equals(token)) {
+                    exact = entry;
+                    continue;
+                }
+                kept.offer(entry);
+                if (kept.size() > MAX_EXPANSIONS - 1) {
+                    kept.poll();
+                }
+            }
+            if (exact != null) {
+                kept.add(exact);
+            }
+            return kept;
+        }
+    }
+}
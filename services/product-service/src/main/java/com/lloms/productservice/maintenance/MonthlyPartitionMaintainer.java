@@ -0,0 +1,49 @@
+package com.lloms.productservice.maintenance;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Keeps monthly partitions of the time partitioned tables (price_history, stock_movements)
+ * created ahead of time, so new rows never land in the default partition
+ */
+@Component
+@Slf4j
+public class MonthlyPartitionMaintainer {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final List<String> tables;
+    private final int monthsAhead;
+
+    public MonthlyPartitionMaintainer(JdbcTemplate jdbcTemplate,
+            @Value("${app.partitions.tables:price_history,stock_movements}") List<String> tables,
+            @Value("${app.partitions.months-ahead:3}") int monthsAhead) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.tables = tables;
+        this.monthsAhead = monthsAhead;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${app.partitions.cron:0 0 3 * * *}")
+    public void createUpcomingPartitions() {
+        for (String table : tables) {
+            try {
+                Integer created = jdbcTemplate.queryForObject(
+                        "SELECT create_monthly_partitions(?, CURRENT_DATE, ?)", Integer.class, table, monthsAhead);
+                if (created != null && created > 0) {
+                    log.info("Created {} {} partitions", created, table);
+                }
+            } catch (DataAccessException ex) {
+                log.warn("Could not create {} partitions: {}", table, ex.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.lloms.productservice.maintenance;
+
+import com.lloms.productservice.repository.StockLedgerRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Periodically folds the stock ledger tail into stock_snapshots, keeping stock-as-of
+ * lookups bounded to one interval of movements
+ */
+@Component
+@Slf4j
+public class StockSnapshotCompactor {
+
+    private final StockLedgerRepository stockLedgerRepository;
+    private final Duration lag;
+
+    public StockSnapshotCompactor(StockLedgerRepository stockLedgerRepository,
+            @Value("${app.stock.snapshot.lag:5m}") Duration lag) {
+        this.stockLedgerRepository = stockLedgerRepository;
+        this.lag = lag;
+    }
+
+    @Scheduled(fixedDelayString = "${app.stock.snapshot.interval:15m}",
+            initialDelayString = "${app.stock.snapshot.interval:15m}")
+    public void compact() {
+        try {
+            long start = System.currentTimeMillis();
+            int snapshots = stockLedgerRepository.compactSnapshots(lag);
+            if (snapshots > 0) {
+                log.info("Compacted stock ledger into {} snapshots in {} ms", snapshots,
+                        System.currentTimeMillis() - start);
+            }
+        } catch (DataAccessException ex) {
+            log.warn("Could not compact stock ledger: {}", ex.getMessage());
+        }
+    }
+}
@@ -2,54 +2,65 @@ package com.lloms.productservice.mapper;
 
 import com.lloms.productservice.dto.response.ProductResponse;
 import com.lloms.productservice.entity.Product;
-// import org.mapstruct.Mapper;
-// import org.mapstruct.Mapping;
-// import org.mapstruct.Named;
+import com.lloms.productservice.entity.enums.ProductStatus;
+import com.lloms.productservice.index.ProductSnapshot;
+import org.mapstruct.AfterMapping;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.MappingTarget;
+
+import java.math.BigDecimal;
 
 /**
  * Mapper interface for Product entity and DTOs
- * Temporarily disabled MapStruct for compilation
+ * The implementation is generated by MapStruct at compile time
  */
-// @Mapper(componentModel = "spring")
+@Mapper(componentModel = "spring")
 public interface ProductMapper {
 
-    // @Mapping(target = "categoryId", source = "category.id")
-    // @Mapping(target = "categoryName", source = "category.name")
-    // @Mapping(target = "outletId", source = "outlet.id")
-    // @Mapping(target = "outletName", source = "outlet.name")
-    // @Mapping(target = "profitMargin", source = ".", qualifiedByName =
-    // "calculateProfitMargin")
-    // @Mapping(target = "taxAmount", source = ".", qualifiedByName =
-    // "calculateTaxAmount")
-    // @Mapping(target = "priceWithTax", source = ".", qualifiedByName =
-    // "calculatePriceWithTax")
-    // @Mapping(target = "isLowStock", source = ".", qualifiedByName = "isLowStock")
-    // @Mapping(target = "isOutOfStock", source = ".", qualifiedByName =
-    // "isOutOfStock")
+    @Mapping(target = "categoryId", source = "category.id")
+    @Mapping(target = "categoryName", source = "category.name")
+    @Mapping(target = "outletId", source = "outlet.id")
+    @Mapping(target = "outletName", source = "outlet.name")
+    @Mapping(target = "isLowStock", source = "lowStock")
+    @Mapping(target = "isOutOfStock", source = "outOfStock")
+    @Mapping(target = "profitMargin", ignore = true)
+    @Mapping(target = "taxAmount", ignore = true)
+    @Mapping(target = "priceWithTax", ignore = true)
     ProductResponse toResponse(Product product);
 
-    // @Named("calculateProfitMargin")
-    default java.math.BigDecimal calculateProfitMargin(Product product) {
-        return product.calculateProfitMargin();
-    }
-
-    // @Named("calculateTaxAmount")
-    default java.math.BigDecimal calculateTaxAmount(Product product) {
-        return product.calculateTaxAmount();
-    }
-
-    // @Named("calculatePriceWithTax")
-    default java.math.BigDecimal calculatePriceWithTax(Product product) {
-        return product.getPriceWithTax();
-    }
-
-    // @Named("isLowStock")
-    default Boolean isLowStock(Product product) {
-        return product.isLowStock();
+    /**
+     * Derived monetary fields, with the tax amount computed once and reused for the gross price
+     */
+    @AfterMapping
+    default void mapDerivedAmounts(Product product, @MappingTarget ProductResponse.ProductResponseBuilder response) {
+        BigDecimal taxAmount = product.calculateTaxAmount();
+        response.taxAmount(taxAmount)
+                .priceWithTax(product.getPrice().add(taxAmount))
+                .profitMargin(product.calculateProfitMargin());
     }
 
-    // @Named("isOutOfStock")
-    default Boolean isOutOfStock(Product product) {
-        return product.isOutOfStock();
+    default ProductSnapshot toSnapshot(Product product) {
+        BigDecimal taxAmount = product.calculateTaxAmount();
+        return ProductSnapshot.builder()
+                .id(product.getId())
+                .name(product.getName())
+                .description(product.getDescription())
+                .sku(product.getSku())
+                .barcode(product.getBarcode())
+                .categoryId(product.getCategory().getId())
+                .categoryName(product.getCategory().getName())
+                .outletId(product.getOutlet().getId())
+                .outletName(product.getOutlet().getName())
+                .price(product.getPrice())
+                .taxAmount(taxAmount)
+                .priceWithTax(product.getPrice().add(taxAmount))
+                .stockQuantity(product.getStockQuantity())
+                .minStockLevel(product.getMinStockLevel())
+                .status(ProductStatus.valueOf(product.getStatus().name()))
+                .unit(product.getUnit())
+                .version(product.getVersion())
+                .updatedAt(product.getUpdatedAt())
+                .build();
     }
 }
@@ -0,0 +1,22 @@
+package com.lloms.productservice.repository;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Version of everything a product listing is built from, read by CatalogVersionRepository.
+ * Each committed transaction that writes products, categories or outlets bumps it once.
+ */
+public record CatalogVersion(long version, LocalDateTime modifiedAt) {
+
+    public String eTag() {
+        return "\"" + Long.toHexString(version) + "\"";
+    }
+
+    /**
+     * @return the modification time in epoch milliseconds
+     */
+    public long lastModified() {
+        return modifiedAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
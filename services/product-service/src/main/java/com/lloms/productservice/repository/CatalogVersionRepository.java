@@ -0,0 +1,26 @@
+package com.lloms.productservice.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * JDBC repository for the catalog version row, bumped by database triggers on every
+ * transaction that edits products, categories or outlets; stock movements leave it alone
+ */
+@Repository
+@RequiredArgsConstructor
+public class CatalogVersionRepository {
+
+    private static final String SELECT_SQL = "SELECT version, modified_at FROM catalog_version WHERE id = 1";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Primary key lookup of a single row, cheap enough for every conditional GET
+     */
+    public CatalogVersion find() {
+        return jdbcTemplate.queryForObject(SELECT_SQL, (rs, rowNum) ->
+                new CatalogVersion(rs.getLong("version"), rs.getTimestamp("modified_at").toLocalDateTime()));
+    }
+}
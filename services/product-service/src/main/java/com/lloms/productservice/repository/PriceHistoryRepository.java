@@ -0,0 +1,24 @@
+package com.lloms.productservice.repository;
+
+import com.lloms.productservice.entity.PriceHistory;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Repository interface for PriceHistory entity
+ */
+@Repository
+public interface PriceHistoryRepository extends JpaRepository<PriceHistory, Long> {
+
+    /**
+     * All price changes of a product in effective order, served by idx_price_history_product_effective
+     */
+    @Query("SELECT new com.lloms.productservice.repository.PricePoint(" +
+            "ph.effectiveDate, ph.previousPrice, ph.newPrice) " +
+            "FROM PriceHistory ph WHERE ph.product.id = :productId ORDER BY ph.effectiveDate, ph.id")
+    List<PricePoint> findTimeline(@Param("productId") Long productId);
+}
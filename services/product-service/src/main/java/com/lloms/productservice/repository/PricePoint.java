@@ -0,0 +1,10 @@
+package com.lloms.productservice.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * A single price change without the audit columns, projected by PriceHistoryRepository
+ */
+public record PricePoint(LocalDateTime effectiveDate, BigDecimal previousPrice, BigDecimal newPrice) {
+}
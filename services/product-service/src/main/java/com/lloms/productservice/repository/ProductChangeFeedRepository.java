@@ -0,0 +1,110 @@
+package com.lloms.productservice.repository;
+
+import com.lloms.productservice.dto.response.ProductSyncRecord;
+import com.lloms.productservice.entity.enums.ProductStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+/**
+ * JDBC repository for the POS change feed. Rows are read past a (updated_at, id)
+ * watermark straight off the keyset indexes, soft-deleted rows included.
+ * Only rows older than the horizon are returned: a transaction still in flight may
+ * commit a row stamped earlier than rows already sent, and a terminal that moved its
+ * watermark past that stamp would never see it.
+ */
+@Repository
+public class ProductChangeFeedRepository {
+
+    private static final int FETCH_SIZE = 1000;
+
+    private static final String SELECT_SQL = "SELECT id, version, updated_at, deleted, sku, barcode, name, price, " +
+            "is_taxable, tax_rate, status, stock_quantity, unit, category_id, outlet_id FROM products";
+
+    private static final String HORIZON_CLAUSE =
+            " WHERE updated_at < LOCALTIMESTAMP - make_interval(secs => :horizonSeconds)";
+
+    private static final String SINCE_CLAUSE = " AND (updated_at, id) > (:since, :afterId)";
+
+    private static final String OUTLET_CLAUSE = " AND outlet_id = :outletId";
+
+    private static final String ORDER_SQL = " ORDER BY updated_at, id LIMIT :limit";
+
+    private static final RowMapper<ProductSyncRecord> ROW_MAPPER = (rs, rowNum) -> {
+        ProductSyncRecord.ProductSyncRecordBuilder record = ProductSyncRecord.builder()
+                .id(rs.getLong("id"))
+                .version(rs.getLong("version"))
+                .updatedAt(rs.getTimestamp("updated_at").toLocalDateTime());
+        if (rs.getBoolean("deleted")) {
+            return record.deleted(true).build();
+        }
+        return record
+                .sku(rs.getString("sku"))
+                .barcode(rs.getString("barcode"))
+                .name(rs.getString("name"))
+                .price(rs.getBigDecimal("price"))
+                .isTaxable(rs.getBoolean("is_taxable"))
+                .taxRate(rs.getBigDecimal("tax_rate"))
+                .status(ProductStatus.valueOf(rs.getString("status")))
+                .stockQuantity(rs.getInt("stock_quantity"))
+                .unit(rs.getString("unit"))
+                .categoryId(rs.getLong("category_id"))
+                .outletId(rs.getLong("outlet_id"))
+                .build();
+    };
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public ProductChangeFeedRepository(JdbcTemplate jdbcTemplate) {
+        // A feed can span the whole catalog; fetch in batches instead of buffering the result set
+        JdbcTemplate streamingTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        streamingTemplate.setFetchSize(FETCH_SIZE);
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(streamingTemplate);
+    }
+
+    /**
+     * Streams products changed after the watermark in (updated_at, id) order.
+     * The stream must be closed, and read inside a transaction for the fetch size to apply.
+     *
+     * @param since   watermark timestamp, or null to start from the beginning
+     * @param afterId watermark product ID, rows at exactly since with a higher ID follow
+     * @param outletId restricts the feed to one outlet, or null for all outlets
+     */
+    public Stream<ProductSyncRecord> streamChanges(LocalDateTime since, long afterId, Long outletId,
+            Duration horizon, int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource("limit", limit);
+        String sql = SELECT_SQL + where(since, afterId, outletId, horizon, params) + ORDER_SQL;
+        return jdbcTemplate.queryForStream(sql, params, ROW_MAPPER);
+    }
+
+    /**
+     * Whether the feed past the watermark is non-empty; a single index probe
+     */
+    public boolean hasChanges(LocalDateTime since, long afterId, Long outletId, Duration horizon) {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        String sql = "SELECT EXISTS (SELECT 1 FROM products" + where(since, afterId, outletId, horizon, params) + ")";
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(sql, params, Boolean.class));
+    }
+
+    private static String where(LocalDateTime since, long afterId, Long outletId, Duration horizon,
+            MapSqlParameterSource params) {
+        StringBuilder where = new StringBuilder(HORIZON_CLAUSE);
+        params.addValue("horizonSeconds", horizon.toSeconds());
+        if (since != null) {
+            where.append(SINCE_CLAUSE);
+            params.addValue("since", Timestamp.valueOf(since)).addValue("afterId", afterId);
+        }
+        if (outletId != null) {
+            where.append(OUTLET_CLAUSE);
+            params.addValue("outletId", outletId);
+        }
+        return where.toString();
+    }
+}
@@ -0,0 +1,113 @@
+package com.lloms.productservice.repository;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lloms.productservice.dto.response.ProductImportError;
+import com.lloms.productservice.dto.response.ProductImportResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * JDBC repository for bulk import job status. The replica running a job writes its
+ * progress here after every chunk, so any replica can answer a poll for it.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ProductImportJobRepository {
+
+    private static final TypeReference<List<ProductImportError>> ERRORS_TYPE = new TypeReference<>() {
+    };
+
+    private static final String SAVE_SQL = "INSERT INTO product_import_jobs (job_id, status, processed_rows, " +
+            "imported_rows, rejected_rows, errors, message, created_by, started_at, finished_at) " +
+            "VALUES (:jobId, :status, :processedRows, :importedRows, :rejectedRows, CAST(:errors AS JSONB), " +
+            ":message, :createdBy, :startedAt, :finishedAt) " +
+            "ON CONFLICT (job_id) DO UPDATE SET status = EXCLUDED.status, " +
+            "processed_rows = EXCLUDED.processed_rows, imported_rows = EXCLUDED.imported_rows, " +
+            "rejected_rows = EXCLUDED.rejected_rows, errors = EXCLUDED.errors, message = EXCLUDED.message, " +
+            "started_at = EXCLUDED.started_at, finished_at = EXCLUDED.finished_at";
+
+    private static final String SELECT_SQL = "SELECT job_id, status, processed_rows, imported_rows, rejected_rows, " +
+            "errors, message, started_at, finished_at FROM product_import_jobs WHERE job_id = :jobId";
+
+    private static final String DELETE_FINISHED_SQL =
+            "DELETE FROM product_import_jobs WHERE finished_at < :expiry";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    public void save(ProductImportResponse job, String createdBy) {
+        jdbcTemplate.update(SAVE_SQL, new MapSqlParameterSource()
+                .addValue("jobId", job.getJobId())
+                .addValue("status", job.getStatus().name())
+                .addValue("processedRows", job.getProcessedRows())
+                .addValue("importedRows", job.getImportedRows())
+                .addValue("rejectedRows", job.getRejectedRows())
+                .addValue("errors", writeErrors(job.getErrors()))
+                .addValue("message", job.getMessage(), Types.VARCHAR)
+                .addValue("createdBy", createdBy, Types.VARCHAR)
+                .addValue("startedAt", toTimestamp(job.getStartedAt()), Types.TIMESTAMP)
+                .addValue("finishedAt", toTimestamp(job.getFinishedAt()), Types.TIMESTAMP));
+    }
+
+    public Optional<ProductImportResponse> find(String jobId) {
+        return jdbcTemplate.query(SELECT_SQL, new MapSqlParameterSource("jobId", jobId),
+                (rs, rowNum) -> toResponse(rs)).stream().findFirst();
+    }
+
+    /**
+     * @return the number of jobs removed
+     */
+    public int deleteFinishedBefore(LocalDateTime expiry) {
+        return jdbcTemplate.update(DELETE_FINISHED_SQL, new MapSqlParameterSource("expiry", Timestamp.valueOf(expiry)));
+    }
+
+    private ProductImportResponse toResponse(ResultSet rs) throws SQLException {
+        return ProductImportResponse.builder()
+                .jobId(rs.getString("job_id"))
+                .status(ProductImportResponse.Status.valueOf(rs.getString("status")))
+                .processedRows(rs.getLong("processed_rows"))
+                .importedRows(rs.getLong("imported_rows"))
+                .rejectedRows(rs.getLong("rejected_rows"))
+                .errors(readErrors(rs.getString("errors")))
+                .message(rs.getString("message"))
+                .startedAt(toLocalDateTime(rs.getTimestamp("started_at")))
+                .finishedAt(toLocalDateTime(rs.getTimestamp("finished_at")))
+                .build();
+    }
+
+    private String writeErrors(List<ProductImportError> errors) {
+        try {
+            return objectMapper.writeValueAsString(errors != null ? errors : List.of());
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not serialize import errors", ex);
+        }
+    }
+
+    private List<ProductImportError> readErrors(String json) {
+        try {
+            return objectMapper.readValue(json, ERRORS_TYPE);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not read import errors", ex);
+        }
+    }
+
+    private static Timestamp toTimestamp(LocalDateTime value) {
+        return value != null ? Timestamp.valueOf(value) : null;
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp value) {
+        return value != null ? value.toLocalDateTime() : null;
+    }
+}
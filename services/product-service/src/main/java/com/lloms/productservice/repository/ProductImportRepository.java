@@ -0,0 +1,120 @@
+package com.lloms.productservice.repository;
+
+import com.lloms.productservice.entity.enums.ProductStatus;
+import lombok.Builder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Types;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * JDBC repository for bulk product imports.
+ * Uniqueness and reference checks are answered with one set-based query per chunk,
+ * and products are inserted as one JDBC batch with IDs drawn from the sequence up front.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ProductImportRepository {
+
+    private static final String EXISTING_SKUS_SQL = "SELECT sku FROM products WHERE deleted = FALSE AND sku IN (:codes)";
+
+    private static final String EXISTING_BARCODES_SQL =
+            "SELECT barcode FROM products WHERE deleted = FALSE AND barcode IN (:codes)";
+
+    private static final String EXISTING_CATEGORIES_SQL = "SELECT id FROM categories WHERE deleted = FALSE AND id IN (:ids)";
+
+    // Outlets have no deleted flag; a closed outlet is the retired one
+    private static final String EXISTING_OUTLETS_SQL = "SELECT id FROM outlets WHERE status <> 'CLOSED' AND id IN (:ids)";
+
+    private static final String ALLOCATE_IDS_SQL =
+            "SELECT nextval('products_id_seq') FROM generate_series(1, :count)";
+
+    private static final String INSERT_SQL = "INSERT INTO products (id, name, description, price, cost_price, " +
+            "stock_quantity, min_stock_level, sku, barcode, category_id, outlet_id, status, image_url, weight, unit, " +
+            "is_taxable, tax_rate, created_at, updated_at, created_by, updated_by, deleted, version) " +
+            "VALUES (:id, :name, :description, :price, :costPrice, :stockQuantity, :minStockLevel, :sku, :barcode, " +
+            ":categoryId, :outletId, :status, :imageUrl, :weight, :unit, :isTaxable, :taxRate, " +
+            "CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, :createdBy, :createdBy, FALSE, 0)";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public Set<String> findExistingSkus(Collection<String> skus) {
+        return findExisting(EXISTING_SKUS_SQL, skus);
+    }
+
+    public Set<String> findExistingBarcodes(Collection<String> barcodes) {
+        return findExisting(EXISTING_BARCODES_SQL, barcodes);
+    }
+
+    public Set<Long> findExistingCategoryIds(Collection<Long> ids) {
+        return findExistingIds(EXISTING_CATEGORIES_SQL, ids);
+    }
+
+    public Set<Long> findExistingOutletIds(Collection<Long> ids) {
+        return findExistingIds(EXISTING_OUTLETS_SQL, ids);
+    }
+
+    /**
+     * Draws IDs for a batch of new products from the products sequence in one round trip
+     */
+    public List<Long> allocateIds(int count) {
+        return jdbcTemplate.queryForList(ALLOCATE_IDS_SQL, new MapSqlParameterSource("count", count), Long.class);
+    }
+
+    /**
+     * Inserts new products as one JDBC batch; with reWriteBatchedInserts the driver sends multi-row inserts.
+     * Nullable columns are bound with an explicit SQL type, so a null never costs a parameter type lookup.
+     */
+    public void insertProducts(Collection<NewProduct> products, String createdBy) {
+        MapSqlParameterSource[] batch = products.stream()
+                .map(product -> new MapSqlParameterSource()
+                        .addValue("id", product.id())
+                        .addValue("name", product.name())
+                        .addValue("description", product.description(), Types.VARCHAR)
+                        .addValue("price", product.price())
+                        .addValue("costPrice", product.costPrice())
+                        .addValue("stockQuantity", product.stockQuantity())
+                        .addValue("minStockLevel", product.minStockLevel(), Types.INTEGER)
+                        .addValue("sku", product.sku(), Types.VARCHAR)
+                        .addValue("barcode", product.barcode(), Types.VARCHAR)
+                        .addValue("categoryId", product.categoryId())
+                        .addValue("outletId", product.outletId())
+                        .addValue("status", product.status().name())
+                        .addValue("imageUrl", product.imageUrl(), Types.VARCHAR)
+                        .addValue("weight", product.weight(), Types.NUMERIC)
+                        .addValue("unit", product.unit(), Types.VARCHAR)
+                        .addValue("isTaxable", product.isTaxable())
+                        .addValue("taxRate", product.taxRate(), Types.NUMERIC)
+                        .addValue("createdBy", createdBy))
+                .toArray(MapSqlParameterSource[]::new);
+        jdbcTemplate.batchUpdate(INSERT_SQL, batch);
+    }
+
+    private Set<String> findExisting(String sql, Collection<String> codes) {
+        if (codes.isEmpty()) {
+            return Set.of();
+        }
+        return new HashSet<>(jdbcTemplate.queryForList(sql, new MapSqlParameterSource("codes", codes), String.class));
+    }
+
+    private Set<Long> findExistingIds(String sql, Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return Set.of();
+        }
+        return new HashSet<>(jdbcTemplate.queryForList(sql, new MapSqlParameterSource("ids", ids), Long.class));
+    }
+
+    @Builder
+    public record NewProduct(Long id, String name, String description, BigDecimal price, BigDecimal costPrice,
+            int stockQuantity, Integer minStockLevel, String sku, String barcode, Long categoryId, Long outletId,
+            ProductStatus status, String imageUrl, BigDecimal weight, String unit, boolean isTaxable,
+            BigDecimal taxRate) {
+    }
+}
@@ -2,70 +2,104 @@ package com.lloms.productservice.repository;
 
 import com.lloms.productservice.entity.Product;
 import com.lloms.productservice.entity.enums.ProductStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repository interface for Product entity
  * Extends JpaSpecificationExecutor for dynamic queries
+ * Queries feeding ProductResponse fetch category and outlet up front so mapping never lazy loads
  */
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpecificationExecutor<Product> {
 
+    /**
+     * Find all products with category and outlet for response mapping
+     */
+    @Override
+    @EntityGraph(attributePaths = {"category", "outlet"})
+    Page<Product> findAll(Pageable pageable);
+
     /**
      * Find product by SKU
      */
+    @EntityGraph(attributePaths = {"category", "outlet"})
     Optional<Product> findBySkuAndDeletedFalse(String sku);
 
     /**
      * Find product by barcode
      */
+    @EntityGraph(attributePaths = {"category", "outlet"})
     Optional<Product> findByBarcodeAndDeletedFalse(String barcode);
 
     /**
      * Find products by category
      */
+    @EntityGraph(attributePaths = {"category", "outlet"})
     Page<Product> findByCategoryIdAndDeletedFalse(Long categoryId, Pageable pageable);
 
+    /**
+     * Find products in a category or any of its subcategories, resolved through the category closure table.
+     * A deleted category hides its whole subtree, as in the cached category tree: a descendant only counts
+     * if every category on its path up to the requested one, both ends included, is live.
+     */
+    @EntityGraph(attributePaths = {"category", "outlet"})
+    @Query("SELECT p FROM Product p WHERE p.deleted = false AND p.category.id IN " +
+            "(SELECT cc.descendantId FROM CategoryClosure cc WHERE cc.ancestorId = :categoryId " +
+            "AND NOT EXISTS (SELECT up.ancestorId FROM CategoryClosure up WHERE up.descendantId = cc.descendantId " +
+            "AND up.depth <= cc.depth AND up.ancestorId NOT IN " +
+            "(SELECT c.id FROM Category c WHERE c.deleted = false)))")
+    Page<Product> findInCategoryTree(@Param("categoryId") Long categoryId, Pageable pageable);
+
     /**
      * Find products by outlet
      */
+    @EntityGraph(attributePaths = {"category", "outlet"})
     Page<Product> findByOutletIdAndDeletedFalse(Long outletId, Pageable pageable);
 
     /**
      * Find products by status
      */
+    @EntityGraph(attributePaths = {"category", "outlet"})
     Page<Product> findByStatusAndDeletedFalse(ProductStatus status, Pageable pageable);
 
     /**
-     * Find products by name containing (case insensitive)
-     */
-    Page<Product> findByNameContainingIgnoreCaseAndDeletedFalse(String name, Pageable pageable);
-
-    /**
-     * Find products with low stock
+     * Find products with low stock, lowest stock first, optionally within one outlet
      */
-    @Query("SELECT p FROM Product p WHERE p.deleted = false AND p.minStockLevel IS NOT NULL AND p.stockQuantity <= p.minStockLevel")
-    List<Product> findLowStockProducts();
+    @EntityGraph(attributePaths = {"category", "outlet"})
+    @Query("SELECT p FROM Product p WHERE p.deleted = false AND p.minStockLevel IS NOT NULL " +
+            "AND p.stockQuantity <= p.minStockLevel AND (:outletId IS NULL OR p.outlet.id = :outletId) " +
+            "ORDER BY p.stockQuantity, p.id")
+    Page<Product> findLowStockProducts(@Param("outletId") Long outletId, Pageable pageable);
 
     /**
-     * Find out of stock products
+     * Find out of stock products, lowest stock first, optionally within one outlet
      */
-    @Query("SELECT p FROM Product p WHERE p.deleted = false AND p.stockQuantity <= 0")
-    List<Product> findOutOfStockProducts();
+    @EntityGraph(attributePaths = {"category", "outlet"})
+    @Query("SELECT p FROM Product p WHERE p.deleted = false AND p.stockQuantity <= 0 " +
+            "AND (:outletId IS NULL OR p.outlet.id = :outletId) ORDER BY p.stockQuantity, p.id")
+    Page<Product> findOutOfStockProducts(@Param("outletId") Long outletId, Pageable pageable);
 
     /**
      * Find products by price range
      */
+    @EntityGraph(attributePaths = {"category", "outlet"})
     @Query("SELECT p FROM Product p WHERE p.deleted = false AND p.price BETWEEN :minPrice AND :maxPrice")
     Page<Product> findByPriceRange(@Param("minPrice") BigDecimal minPrice,
             @Param("maxPrice") BigDecimal maxPrice,
@@ -73,7 +107,9 @@ public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpec
 
     /**
      * Find products by multiple criteria
+     * The name filter matches LOWER(name) so it can use the trigram index
      */
+    @EntityGraph(attributePaths = {"category", "outlet"})
     @Query("SELECT p FROM Product p WHERE p.deleted = false " +
             "AND (:categoryId IS NULL OR p.category.id = :categoryId) " +
             "AND (:outletId IS NULL OR p.outlet.id = :outletId) " +
@@ -85,6 +121,20 @@ public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpec
             @Param("name") String name,
             Pageable pageable);
 
+    /**
+     * Current price of a product, including deleted ones so past sales can still be priced.
+     * Native, as JPQL would apply the entity's deleted filter.
+     */
+    @Query(value = "SELECT price FROM products WHERE id = :id", nativeQuery = true)
+    Optional<BigDecimal> findPriceById(@Param("id") Long id);
+
+    /**
+     * Whether a product exists, deleted or not, so its stock history stays queryable.
+     * Native for the same reason as findPriceById.
+     */
+    @Query(value = "SELECT EXISTS (SELECT 1 FROM products WHERE id = :id)", nativeQuery = true)
+    boolean existsIncludingDeletedById(@Param("id") Long id);
+
     /**
      * Check if SKU exists (excluding current product)
      */
@@ -112,8 +162,43 @@ public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpec
     /**
      * Find products for inventory report
      */
+    @EntityGraph(attributePaths = {"category", "outlet"})
     @Query("SELECT p FROM Product p WHERE p.deleted = false " +
             "AND (:outletId IS NULL OR p.outlet.id = :outletId) " +
             "ORDER BY p.category.name, p.name")
     List<Product> findForInventoryReport(@Param("outletId") Long outletId);
+
+    /**
+     * Stream products for the inventory export with category and outlet, in report order.
+     * Must be consumed inside a transaction so the driver honours the fetch size.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT p FROM Product p JOIN FETCH p.category c JOIN FETCH p.outlet WHERE p.deleted = false " +
+            "AND (:outletId IS NULL OR p.outlet.id = :outletId) " +
+            "ORDER BY c.name, p.name, p.id")
+    Stream<Product> streamForInventoryReport(@Param("outletId") Long outletId);
+
+    /**
+     * Load a batch of products with category and outlet for the in-memory indexes
+     */
+    @Query("SELECT p FROM Product p JOIN FETCH p.category JOIN FETCH p.outlet " +
+            "WHERE p.deleted = false AND p.id > :afterId ORDER BY p.id")
+    List<Product> findIndexBatch(@Param("afterId") Long afterId, Limit limit);
+
+    /**
+     * Load products by ID with category and outlet, used by the in-memory indexes and ranked search
+     */
+    @Query("SELECT p FROM Product p JOIN FETCH p.category JOIN FETCH p.outlet " +
+            "WHERE p.deleted = false AND p.id IN :ids")
+    List<Product> findAllForIndexByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Find a product by barcode or SKU with category and outlet, used while the scan index is loading
+     */
+    @Query("SELECT p FROM Product p JOIN FETCH p.category JOIN FETCH p.outlet " +
+            "WHERE p.deleted = false AND (p.barcode = :code OR p.sku = :code)")
+    List<Product> findForScan(@Param("code") String code);
 }
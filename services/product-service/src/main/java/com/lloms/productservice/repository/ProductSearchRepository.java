@@ -0,0 +1,78 @@
+package com.lloms.productservice.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * JDBC repository for ranked product name search backed by the pg_trgm indexes.
+ * Names starting with the term rank first, then names containing it, then names
+ * that only match a word approximately; ties are broken by name and ID.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ProductSearchRepository {
+
+    /**
+     * Terms shorter than this produce no trigrams, so only prefix matching is used
+     */
+    static final int MIN_TRIGRAM_TERM_LENGTH = 3;
+
+    private static final String PREFIX_MATCH = "LOWER(p.name) LIKE :prefix";
+
+    private static final String TRIGRAM_MATCH = "(LOWER(p.name) LIKE :contains OR :term <% LOWER(p.name))";
+
+    private static final String RANKED_SELECT = "SELECT p.id FROM products p WHERE p.deleted = FALSE AND %s " +
+            "ORDER BY (LOWER(p.name) LIKE :prefix) DESC, (LOWER(p.name) LIKE :contains) DESC, " +
+            "word_similarity(:term, LOWER(p.name)) DESC, p.name, p.id " +
+            "LIMIT :limit OFFSET :offset";
+
+    private static final String COUNT_SELECT = "SELECT COUNT(*) FROM products p WHERE p.deleted = FALSE AND %s";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Find the IDs of live products matching the term, best match first
+     */
+    public List<Long> searchIds(String term, long offset, int limit) {
+        String normalized = normalize(term);
+        MapSqlParameterSource params = params(normalized)
+                .addValue("offset", offset)
+                .addValue("limit", limit);
+        return jdbcTemplate.queryForList(RANKED_SELECT.formatted(matchClause(normalized)), params, Long.class);
+    }
+
+    /**
+     * Count live products matching the term
+     */
+    public long count(String term) {
+        String normalized = normalize(term);
+        Long count = jdbcTemplate.queryForObject(COUNT_SELECT.formatted(matchClause(normalized)),
+                params(normalized), Long.class);
+        return count != null ? count : 0;
+    }
+
+    private static String matchClause(String term) {
+        return term.length() < MIN_TRIGRAM_TERM_LENGTH ? PREFIX_MATCH : TRIGRAM_MATCH;
+    }
+
+    private static MapSqlParameterSource params(String term) {
+        String escaped = escapeLike(term);
+        return new MapSqlParameterSource()
+                .addValue("term", term)
+                .addValue("prefix", escaped + "%")
+                .addValue("contains", "%" + escaped + "%");
+    }
+
+    private static String normalize(String term) {
+        return term.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static String escapeLike(String term) {
+        return term.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,159 @@
+package com.lloms.productservice.repository;
+
+import com.lloms.productservice.entity.enums.ProductStatus;
+import com.lloms.productservice.entity.enums.StockMovementType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * JDBC repository for stock changes that must not go through entity loading.
+ * Each statement applies the change, recomputes the stock-derived status and
+ * records the stock movement in a single round trip.
+ */
+@Repository
+@RequiredArgsConstructor
+public class StockJdbcRepository {
+
+    /**
+     * Status recomputed from the new quantity; manually set statuses are kept
+     */
+    static final String STATUS_AFTER_CHANGE = "CASE " +
+            "WHEN p.status IN ('INACTIVE', 'DISCONTINUED') THEN p.status " +
+            "WHEN p.stock_quantity + :delta <= 0 THEN 'OUT_OF_STOCK' " +
+            "WHEN p.min_stock_level IS NOT NULL AND p.stock_quantity + :delta <= p.min_stock_level THEN 'LOW_STOCK' " +
+            "ELSE 'ACTIVE' END";
+
+    private static final String RESERVE_SQL = "WITH updated AS (" +
+            "UPDATE products p SET stock_quantity = p.stock_quantity + :delta, " +
+            "status = " + STATUS_AFTER_CHANGE + ", " +
+            "version = p.version + 1, updated_at = CURRENT_TIMESTAMP, updated_by = :performedBy " +
+            "WHERE p.id = :productId AND p.deleted = FALSE AND p.stock_quantity >= :quantity " +
+            "RETURNING p.id, p.sku, p.barcode, p.stock_quantity, p.status), " +
+            "movement AS (" +
+            "INSERT INTO stock_movements (product_id, quantity, delta, movement_type, reason, reference_id, " +
+            "reference_type, performed_by, created_at) " +
+            "SELECT id, :quantity, :delta, 'OUTBOUND', :reason, :referenceId, :referenceType, :performedBy, " +
+            "CURRENT_TIMESTAMP FROM updated) " +
+            "SELECT id, sku, barcode, stock_quantity, status FROM updated";
+
+    /**
+     * Rows are locked in primary key order so concurrent batches touching
+     * overlapping products always queue instead of deadlocking
+     */
+    private static final String LOCK_SQL = "SELECT id, sku, barcode, stock_quantity, status FROM products " +
+            "WHERE id IN (:ids) AND deleted = FALSE ORDER BY id FOR UPDATE";
+
+    private static final String APPLY_DELTA_SQL = "UPDATE products p SET stock_quantity = p.stock_quantity + :delta, " +
+            "status = " + STATUS_AFTER_CHANGE + ", " +
+            "version = p.version + 1, updated_at = CURRENT_TIMESTAMP, updated_by = :performedBy " +
+            "WHERE p.id = :productId";
+
+    private static final String INSERT_MOVEMENT_SQL = "INSERT INTO stock_movements (product_id, quantity, " +
+            "delta, movement_type, reason, reference_id, reference_type, performed_by, created_at) " +
+            "VALUES (:productId, :quantity, :delta, :movementType, :reason, :referenceId, :referenceType, :performedBy, " +
+            "CURRENT_TIMESTAMP)";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Atomically decrements stock if enough is available
+     *
+     * @return the updated stock row, or empty if the product does not exist or has insufficient stock
+     */
+    public Optional<StockRow> reserve(Long productId, int quantity, String reason, String referenceId,
+            String referenceType, String performedBy) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("productId", productId)
+                .addValue("quantity", quantity)
+                .addValue("delta", -quantity)
+                .addValue("reason", reason)
+                .addValue("referenceId", referenceId)
+                .addValue("referenceType", referenceType)
+                .addValue("performedBy", performedBy);
+
+        List<StockRow> rows = jdbcTemplate.query(RESERVE_SQL, params, StockJdbcRepository::mapStockRow);
+        return rows.stream().findFirst();
+    }
+
+    /**
+     * Current stock of a live product, used to explain a rejected reservation
+     */
+    public Optional<Integer> findStockQuantity(Long productId) {
+        List<Integer> rows = jdbcTemplate.queryForList(
+                "SELECT stock_quantity FROM products WHERE id = :productId AND deleted = FALSE",
+                new MapSqlParameterSource("productId", productId), Integer.class);
+        return rows.stream().findFirst();
+    }
+
+    /**
+     * Locks the stock rows of the given live products for the rest of the transaction
+     *
+     * @return the locked rows ordered by product ID; missing or deleted products are absent
+     */
+    public List<StockRow> lockForUpdate(Collection<Long> productIds) {
+        return jdbcTemplate.query(LOCK_SQL, new MapSqlParameterSource("ids", productIds),
+                StockJdbcRepository::mapStockRow);
+    }
+
+    /**
+     * Applies net stock changes to previously locked rows as one JDBC batch
+     */
+    public void applyDeltas(Collection<StockDelta> deltas, String performedBy) {
+        MapSqlParameterSource[] batch = deltas.stream()
+                .map(delta -> new MapSqlParameterSource()
+                        .addValue("productId", delta.productId())
+                        .addValue("delta", delta.delta())
+                        .addValue("performedBy", performedBy))
+                .toArray(MapSqlParameterSource[]::new);
+        jdbcTemplate.batchUpdate(APPLY_DELTA_SQL, batch);
+    }
+
+    /**
+     * Records one stock movement per signed change as one JDBC batch
+     */
+    public void insertMovements(Collection<StockDelta> movements, String referenceId, String referenceType,
+            String performedBy) {
+        MapSqlParameterSource[] batch = movements.stream()
+                .map(movement -> new MapSqlParameterSource()
+                        .addValue("productId", movement.productId())
+                        .addValue("quantity", Math.abs(movement.delta()))
+                        .addValue("delta", movement.delta())
+                        .addValue("movementType", (movement.delta() > 0
+                                ? StockMovementType.INBOUND : StockMovementType.OUTBOUND).name())
+                        .addValue("reason", movement.reason())
+                        .addValue("referenceId", referenceId)
+                        .addValue("referenceType", referenceType)
+                        .addValue("performedBy", performedBy))
+                .toArray(MapSqlParameterSource[]::new);
+        jdbcTemplate.batchUpdate(INSERT_MOVEMENT_SQL, batch);
+    }
+
+    private static StockRow mapStockRow(ResultSet rs, int rowNum) throws SQLException {
+        return new StockRow(
+                rs.getLong("id"),
+                rs.getString("sku"),
+                rs.getString("barcode"),
+                rs.getInt("stock_quantity"),
+                ProductStatus.valueOf(rs.getString("status")));
+    }
+
+    /**
+     * Signed stock change for a product
+     */
+    public record StockDelta(Long productId, int delta, String reason) {
+    }
+
+    /**
+     * Stock state of a product after a change
+     */
+    public record StockRow(Long productId, String sku, String barcode, int stockQuantity, ProductStatus status) {
+    }
+}
@@ -0,0 +1,81 @@
+package com.lloms.productservice.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * JDBC repository over the append-only stock ledger (stock_movements) and its
+ * compacted balances (stock_snapshots). The stock of a product at any instant is
+ * the nearest snapshot plus or minus the signed deltas recorded in between, so a
+ * lookup never sums more than one compaction interval of movements.
+ */
+@Repository
+@RequiredArgsConstructor
+public class StockLedgerRepository {
+
+    /**
+     * Each snapshot covers every movement created up to its taken_at, so the tail of
+     * the previous run is everything after the newest snapshot. Movements are stamped
+     * with their transaction's start time, so a transaction still open may yet commit
+     * rows dated back to its xact_start: the cutoff stays behind the oldest open
+     * transaction in this database, less the lag to absorb clock skew from rows stamped
+     * by the application. A long transaction therefore holds compaction back rather
+     * than having its movements skipped for good.
+     */
+    private static final String COMPACT_SQL = "WITH bounds AS (" +
+            "SELECT COALESCE(MAX(taken_at), '-infinity'::timestamp) AS since, " +
+            "LEAST(LOCALTIMESTAMP, (SELECT MIN(a.xact_start)::timestamp FROM pg_stat_activity a " +
+            "WHERE a.datname = current_database() AND a.pid <> pg_backend_pid() AND a.xact_start IS NOT NULL)) " +
+            "- make_interval(secs => :lagSeconds) AS cutoff FROM stock_snapshots), " +
+            "tail AS (" +
+            "SELECT m.product_id, SUM(m.delta) AS delta, b.cutoff FROM stock_movements m CROSS JOIN bounds b " +
+            "WHERE m.created_at > b.since AND m.created_at <= b.cutoff GROUP BY m.product_id, b.cutoff) " +
+            "INSERT INTO stock_snapshots (product_id, taken_at, quantity) " +
+            "SELECT t.product_id, t.cutoff, COALESCE(l.quantity, 0) + t.delta FROM tail t " +
+            "LEFT JOIN LATERAL (SELECT s.quantity FROM stock_snapshots s WHERE s.product_id = t.product_id " +
+            "ORDER BY s.taken_at DESC LIMIT 1) l ON TRUE " +
+            "ON CONFLICT (product_id, taken_at) DO NOTHING";
+
+    /**
+     * Rolls forward from the latest snapshot at or before the instant; failing that,
+     * rolls back from the earliest later snapshot; failing that, the product has no
+     * snapshot yet and its whole ledger is summed
+     */
+    private static final String STOCK_AS_OF_SQL = "SELECT COALESCE(" +
+            "(SELECT s.quantity + COALESCE((SELECT SUM(m.delta) FROM stock_movements m " +
+            "WHERE m.product_id = :productId AND m.created_at > s.taken_at AND m.created_at <= :at), 0) " +
+            "FROM stock_snapshots s WHERE s.product_id = :productId AND s.taken_at <= :at " +
+            "ORDER BY s.taken_at DESC LIMIT 1), " +
+            "(SELECT s.quantity - COALESCE((SELECT SUM(m.delta) FROM stock_movements m " +
+            "WHERE m.product_id = :productId AND m.created_at > :at AND m.created_at <= s.taken_at), 0) " +
+            "FROM stock_snapshots s WHERE s.product_id = :productId AND s.taken_at > :at " +
+            "ORDER BY s.taken_at LIMIT 1), " +
+            "(SELECT SUM(m.delta) FROM stock_movements m WHERE m.product_id = :productId AND m.created_at <= :at), " +
+            "0)";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Writes a new snapshot for every product with movements since the previous compaction
+     *
+     * @return the number of snapshots written
+     */
+    public int compactSnapshots(Duration lag) {
+        return jdbcTemplate.update(COMPACT_SQL, new MapSqlParameterSource("lagSeconds", lag.toSeconds()));
+    }
+
+    /**
+     * Stock quantity of a product as recorded by the ledger at the given instant
+     */
+    public int stockAsOf(Long productId, LocalDateTime at) {
+        Integer quantity = jdbcTemplate.queryForObject(STOCK_AS_OF_SQL, new MapSqlParameterSource()
+                .addValue("productId", productId)
+                .addValue("at", at), Integer.class);
+        return quantity != null ? quantity : 0;
+    }
+}
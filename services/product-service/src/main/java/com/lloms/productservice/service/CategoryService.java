@@ -0,0 +1,15 @@
+package com.lloms.productservice.service;
+
+import com.lloms.productservice.dto.response.CategoryNodeResponse;
+
+import java.util.List;
+
+/**
+ * Service interface for category browsing
+ */
+public interface CategoryService {
+
+    List<CategoryNodeResponse> getCategoryTree();
+
+    CategoryNodeResponse getCategorySubtree(Long categoryId);
+}
@@ -0,0 +1,24 @@
+package com.lloms.productservice.service;
+
+import com.lloms.productservice.dto.request.ExportFormat;
+import com.lloms.productservice.dto.response.ProductImportResponse;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Service interface for bulk product imports
+ */
+public interface ProductImportService {
+
+    /**
+     * Spools the uploaded catalog and queues it for import
+     *
+     * @param defaultOutletId outlet assigned to rows that do not name one, may be null
+     * @return the queued job, poll getImport for progress
+     */
+    ProductImportResponse startImport(ExportFormat format, Long defaultOutletId, InputStream content,
+            String importedBy) throws IOException;
+
+    ProductImportResponse getImport(String jobId);
+}
@@ -1,23 +1,100 @@
 package com.lloms.productservice.service;
 
-import com.lloms.productservice.dto.paginated.PaginatedResponseGetAllProductsDTO;
-import com.lloms.productservice.entity.Product;
+import com.lloms.productservice.dto.paginated.CursorPageResponse;
+import com.lloms.productservice.dto.request.BatchStockAdjustmentRequest;
+import com.lloms.productservice.dto.request.CreateProductRequest;
+import com.lloms.productservice.dto.request.ExportFormat;
+import com.lloms.productservice.dto.request.StockReservationRequest;
+import com.lloms.productservice.dto.request.UpdateProductRequest;
+import com.lloms.productservice.dto.response.BatchStockAdjustmentResponse;
+import com.lloms.productservice.dto.response.PriceAsOfResponse;
+import com.lloms.productservice.dto.response.ProductResponse;
+import com.lloms.productservice.dto.response.StockAsOfResponse;
+import com.lloms.productservice.dto.response.StockReservationResponse;
+import com.lloms.productservice.entity.enums.ProductStatus;
+import com.lloms.productservice.index.ProductSnapshot;
+import com.lloms.productservice.repository.CatalogVersion;
+import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
 
 /**
  * Service interface for product operations
  */
 public interface ProductService {
     
-    PaginatedResponseGetAllProductsDTO getAllProducts(Pageable pageable);
+    ProductResponse createProduct(CreateProductRequest request, String createdBy);
+    
+    ProductResponse updateProduct(Long id, UpdateProductRequest request, String updatedBy);
+    
+    ProductResponse getProductById(Long id);
+    
+    ProductResponse getProductBySku(String sku);
+    
+    ProductResponse getProductByBarcode(String barcode);
+    
+    Page<ProductResponse> getAllProducts(Pageable pageable);
+    
+    Page<ProductResponse> getProductsByCategory(Long categoryId, Pageable pageable);
+    
+    Page<ProductResponse> getProductsByOutlet(Long outletId, Pageable pageable);
+    
+    Page<ProductResponse> getProductsByStatus(ProductStatus status, Pageable pageable);
+    
+    Page<ProductResponse> searchProductsByName(String name, Pageable pageable);
+    
+    Page<ProductResponse> getProductsByPriceRange(BigDecimal minPrice, BigDecimal maxPrice, Pageable pageable);
+    
+    Page<ProductResponse> getProductsByCriteria(Long categoryId, Long outletId, ProductStatus status, String name,
+            Pageable pageable);
+    
+    ProductResponse updateStock(Long id, Integer quantity, String reason, String updatedBy);
+    
+    ProductResponse updatePrice(Long id, BigDecimal newPrice, String reason, String updatedBy);
+    
+    ProductResponse changeStatus(Long id, ProductStatus status, String updatedBy);
+    
+    void deleteProduct(Long id, String deletedBy);
+    
+    boolean existsBySku(String sku, Long excludeId);
+    
+    boolean existsByBarcode(String barcode, Long excludeId);
+    
+    long getProductCountByCategory(Long categoryId);
+    
+    long getProductCountByOutlet(Long outletId);
+    
+    List<ProductResponse> getInventoryReport(Long outletId);
+    
+    ProductSnapshot scanProduct(String code);
+    
+    PriceAsOfResponse getPriceAsOf(Long id, LocalDateTime at);
+    
+    StockAsOfResponse getStockAsOf(Long id, LocalDateTime at);
+    
+    CatalogVersion getCatalogVersion();
+    
+    Page<ProductResponse> getProductsInCategoryTree(Long categoryId, Pageable pageable);
+    
+    Page<ProductResponse> getLowStockProducts(Long outletId, Pageable pageable);
+    
+    Page<ProductResponse> getOutOfStockProducts(Long outletId, Pageable pageable);
     
-    Product getProductById(Long id);
+    void exportInventoryReport(Long outletId, ExportFormat format, OutputStream outputStream) throws IOException;
     
-    Product createProduct(Product product);
+    CursorPageResponse<ProductResponse> scrollProducts(Long categoryId, Long outletId, ProductStatus status,
+            BigDecimal minPrice, BigDecimal maxPrice, String sortProperty, Sort.Direction direction, int size,
+            String cursor);
     
-    Product updateProduct(Long id, Product product);
+    List<ProductSnapshot> suggestProducts(String query, Long outletId, int limit);
     
-    void deleteProduct(Long id);
+    StockReservationResponse reserveStock(Long id, StockReservationRequest request, String performedBy);
     
-    Product updateStock(Long productId, Integer quantity);
-}
\ No newline at end of file
+    BatchStockAdjustmentResponse adjustStockBatch(BatchStockAdjustmentRequest request, String performedBy);
+}
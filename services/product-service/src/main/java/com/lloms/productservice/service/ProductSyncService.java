@@ -0,0 +1,28 @@
+package com.lloms.productservice.service;
+
+import com.lloms.productservice.snapshot.CatalogSnapshot;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+
+/**
+ * Service interface for incremental catalog sync by POS terminals
+ */
+public interface ProductSyncService {
+
+    /**
+     * Writes products created, updated or deleted after the watermark as NDJSON, oldest change first.
+     * A terminal resumes from the updatedAt and id of the last record it received.
+     *
+     * @param since   watermark timestamp, or null for a full sync
+     * @param afterId watermark product ID, or null
+     */
+    void streamChanges(LocalDateTime since, Long afterId, Long outletId, int limit, OutputStream outputStream)
+            throws IOException;
+
+    /**
+     * Returns the current binary catalog snapshot of the outlet, building it on first use
+     */
+    CatalogSnapshot getCatalogSnapshot(Long outletId) throws IOException;
+}
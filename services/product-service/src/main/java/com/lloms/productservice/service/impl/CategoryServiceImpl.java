@@ -0,0 +1,37 @@
+package com.lloms.productservice.service.impl;
+
+import com.lloms.productservice.cache.CategoryTreeCache;
+import com.lloms.productservice.dto.response.CategoryNodeResponse;
+import com.lloms.productservice.exception.CategoryNotFoundException;
+import com.lloms.productservice.service.CategoryService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Implementation of CategoryService, served from the cached category tree
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CategoryServiceImpl implements CategoryService {
+
+    private final CategoryTreeCache categoryTreeCache;
+
+    @Override
+    public List<CategoryNodeResponse> getCategoryTree() {
+        log.debug("Getting category tree");
+
+        return categoryTreeCache.roots();
+    }
+
+    @Override
+    public CategoryNodeResponse getCategorySubtree(Long categoryId) {
+        log.debug("Getting category subtree of ID: {}", categoryId);
+
+        return categoryTreeCache.find(categoryId)
+                .orElseThrow(() -> new CategoryNotFoundException("Category not found with id: " + categoryId));
+    }
+}
@@ -0,0 +1,110 @@
+package com.lloms.productservice.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.lloms.productservice.dto.request.ExportFormat;
+import com.lloms.productservice.dto.response.ProductResponse;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
+/**
+ * Writes inventory export rows one at a time, flushing periodically so a
+ * disconnected client surfaces as an IOException while the export is running
+ */
+abstract class InventoryExportWriter implements Closeable {
+
+    private static final int FLUSH_INTERVAL = 500;
+
+    protected final Writer out;
+    private int pending;
+
+    private InventoryExportWriter(OutputStream outputStream) {
+        this.out = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+    }
+
+    static InventoryExportWriter create(ExportFormat format, OutputStream outputStream, ObjectMapper objectMapper)
+            throws IOException {
+        return switch (format) {
+            case NDJSON -> new NdjsonWriter(outputStream, objectMapper.writerFor(ProductResponse.class));
+            case CSV -> new CsvWriter(outputStream);
+        };
+    }
+
+    void write(ProductResponse row) throws IOException {
+        writeRow(row);
+        if (++pending >= FLUSH_INTERVAL) {
+            out.flush();
+            pending = 0;
+        }
+    }
+
+    protected abstract void writeRow(ProductResponse row) throws IOException;
+
+    @Override
+    public void close() throws IOException {
+        out.flush();
+    }
+
+    private static final class NdjsonWriter extends InventoryExportWriter {
+
+        private final ObjectWriter objectWriter;
+
+        NdjsonWriter(OutputStream outputStream, ObjectWriter objectWriter) {
+            super(outputStream);
+            this.objectWriter = objectWriter;
+        }
+
+        @Override
+        protected void writeRow(ProductResponse row) throws IOException {
+            out.write(objectWriter.writeValueAsString(row));
+            out.write('\n');
+        }
+    }
+
+    private static final class CsvWriter extends InventoryExportWriter {
+
+        private static final String HEADER = "id,sku,barcode,name,category,outlet,stock_quantity,min_stock_level,"
+                + "unit,price,cost_price,status,low_stock,out_of_stock";
+
+        CsvWriter(OutputStream outputStream) throws IOException {
+            super(outputStream);
+            out.write(HEADER);
+            out.write("\r\n");
+        }
+
+        @Override
+        protected void writeRow(ProductResponse row) throws IOException {
+            out.write(String.join(",",
+                    field(row.getId()),
+                    field(row.getSku()),
+                    field(row.getBarcode()),
+                    field(row.getName()),
+                    field(row.getCategoryName()),
+                    field(row.getOutletName()),
+                    field(row.getStockQuantity()),
+                    field(row.getMinStockLevel()),
+                    field(row.getUnit()),
+                    field(row.getPrice() != null ? row.getPrice().toPlainString() : null),
+                    field(row.getCostPrice() != null ? row.getCostPrice().toPlainString() : null),
+                    field(row.getStatus()),
+                    field(row.getIsLowStock()),
+                    field(row.getIsOutOfStock())));
+            out.write("\r\n");
+        }
+
+        private static String field(Object value) {
+            String text = Objects.toString(value, "");
+            if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+                return text;
+            }
+            return '"' + text.replace("\"", "\"\"") + '"';
+        }
+    }
+}
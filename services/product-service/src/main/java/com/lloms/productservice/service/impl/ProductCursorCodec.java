@@ -0,0 +1,86 @@
+package com.lloms.productservice.service.impl;
+
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Encodes keyset positions over (sort key, id) as opaque URL-safe continuation tokens.
+ * Only non-null product columns can be sorted on, so every position has a complete key.
+ * A token carries its sort and is rejected when replayed against a different one.
+ */
+final class ProductCursorCodec {
+
+    static final String ID = "id";
+
+    private static final Map<String, Function<String, Object>> SORTABLE = Map.of(
+            ID, Long::valueOf,
+            "name", value -> value,
+            "price", BigDecimal::new,
+            "stockQuantity", Integer::valueOf,
+            "createdAt", LocalDateTime::parse,
+            "updatedAt", LocalDateTime::parse);
+
+    private static final String SEPARATOR = "|";
+
+    private ProductCursorCodec() {
+    }
+
+    /**
+     * Sort on the property with the ID as tie-breaker
+     *
+     * @throws IllegalArgumentException if the property cannot be used for keyset paging
+     */
+    static Sort sortFor(String property, Sort.Direction direction) {
+        if (!SORTABLE.containsKey(property)) {
+            throw new IllegalArgumentException("Unsupported sort property: " + property
+                    + ", expected one of " + SORTABLE.keySet());
+        }
+        Sort sort = Sort.by(direction, property);
+        return ID.equals(property) ? sort : sort.and(Sort.by(direction, ID));
+    }
+
+    static String encode(String property, Sort.Direction direction, KeysetScrollPosition position) {
+        Map<String, ?> keys = position.getKeys();
+        String token = property + SEPARATOR + direction + SEPARATOR + keys.get(ID)
+                + (ID.equals(property) ? "" : SEPARATOR + keys.get(property));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(token.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException if the token is malformed or was issued for another sort
+     */
+    static KeysetScrollPosition decode(String cursor, String property, Sort.Direction direction) {
+        String[] parts;
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8)
+                    .split("\\" + SEPARATOR, 4);
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+
+        int expectedParts = ID.equals(property) ? 3 : 4;
+        if (parts.length != expectedParts || !parts[0].equals(property) || !parts[1].equals(direction.name())) {
+            throw new IllegalArgumentException("Cursor does not match the requested sort");
+        }
+
+        Map<String, Object> keys = new LinkedHashMap<>();
+        try {
+            if (!ID.equals(property)) {
+                keys.put(property, SORTABLE.get(property).apply(parts[3]));
+            }
+            keys.put(ID, Long.valueOf(parts[2]));
+        } catch (RuntimeException ex) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        return ScrollPosition.forward(keys);
+    }
+}
@@ -0,0 +1,220 @@
+package com.lloms.productservice.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.lloms.productservice.dto.request.CreateProductRequest;
+import com.lloms.productservice.dto.request.ExportFormat;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Reads bulk import rows one at a time, so a catalog file is never held in memory.
+ * CSV columns are matched by header name in the snake_case layout of the inventory
+ * export; unknown columns are ignored. NDJSON lines use the create product request fields.
+ */
+abstract class ProductImportReader implements Closeable {
+
+    protected final BufferedReader in;
+
+    private ProductImportReader(InputStream inputStream) {
+        this.in = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+    }
+
+    static ProductImportReader create(ExportFormat format, InputStream inputStream, ObjectMapper objectMapper)
+            throws IOException {
+        return switch (format) {
+            case NDJSON -> new NdjsonReader(inputStream, objectMapper.readerFor(CreateProductRequest.class));
+            case CSV -> new CsvReader(inputStream);
+        };
+    }
+
+    /**
+     * @return the next row, or null at the end of the input
+     */
+    abstract ImportRow next() throws IOException;
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    /**
+     * One parsed row; request is null when the row could not be parsed
+     */
+    record ImportRow(long line, CreateProductRequest request, String error) {
+
+        static ImportRow parsed(long line, CreateProductRequest request) {
+            return new ImportRow(line, request, null);
+        }
+
+        static ImportRow unreadable(long line, String error) {
+            return new ImportRow(line, null, error);
+        }
+    }
+
+    private static final class NdjsonReader extends ProductImportReader {
+
+        private final ObjectReader objectReader;
+        private long line;
+
+        NdjsonReader(InputStream inputStream, ObjectReader objectReader) {
+            super(inputStream);
+            this.objectReader = objectReader;
+        }
+
+        @Override
+        ImportRow next() throws IOException {
+            String text;
+            do {
+                text = in.readLine();
+                line++;
+            } while (text != null && text.isBlank());
+            if (text == null) {
+                return null;
+            }
+
+            try {
+                return ImportRow.parsed(line, objectReader.readValue(text));
+            } catch (JsonProcessingException ex) {
+                return ImportRow.unreadable(line, "Malformed JSON: " + ex.getOriginalMessage());
+            }
+        }
+    }
+
+    private static final class CsvReader extends ProductImportReader {
+
+        private static final Map<String, BiConsumer<CreateProductRequest, String>> COLUMNS = new HashMap<>();
+
+        static {
+            COLUMNS.put("name", CreateProductRequest::setName);
+            COLUMNS.put("description", CreateProductRequest::setDescription);
+            COLUMNS.put("price", numeric("price", BigDecimal::new, CreateProductRequest::setPrice));
+            COLUMNS.put("cost_price", numeric("cost_price", BigDecimal::new, CreateProductRequest::setCostPrice));
+            COLUMNS.put("stock_quantity",
+                    numeric("stock_quantity", Integer::valueOf, CreateProductRequest::setStockQuantity));
+            COLUMNS.put("min_stock_level",
+                    numeric("min_stock_level", Integer::valueOf, CreateProductRequest::setMinStockLevel));
+            COLUMNS.put("sku", CreateProductRequest::setSku);
+            COLUMNS.put("barcode", CreateProductRequest::setBarcode);
+            COLUMNS.put("category_id", numeric("category_id", Long::valueOf, CreateProductRequest::setCategoryId));
+            COLUMNS.put("outlet_id", numeric("outlet_id", Long::valueOf, CreateProductRequest::setOutletId));
+            COLUMNS.put("image_url", CreateProductRequest::setImageUrl);
+            COLUMNS.put("weight", numeric("weight", BigDecimal::new, CreateProductRequest::setWeight));
+            COLUMNS.put("unit", CreateProductRequest::setUnit);
+            COLUMNS.put("is_taxable", (request, value) -> request.setIsTaxable(Boolean.parseBoolean(value)));
+            COLUMNS.put("tax_rate", numeric("tax_rate", BigDecimal::new, CreateProductRequest::setTaxRate));
+        }
+
+        private final List<BiConsumer<CreateProductRequest, String>> setters = new ArrayList<>();
+        private long line = 1;
+
+        CsvReader(InputStream inputStream) throws IOException {
+            super(inputStream);
+            List<String> header = readRecord();
+            if (header == null) {
+                throw new IllegalArgumentException("CSV import is empty");
+            }
+            for (String column : header) {
+                setters.add(COLUMNS.get(column.strip().toLowerCase(Locale.ROOT)));
+            }
+        }
+
+        @Override
+        ImportRow next() throws IOException {
+            List<String> fields;
+            long start;
+            do {
+                start = line;
+                fields = readRecord();
+            } while (fields != null && fields.size() == 1 && fields.get(0).isBlank());
+            if (fields == null) {
+                return null;
+            }
+
+            CreateProductRequest request = new CreateProductRequest();
+            try {
+                for (int i = 0; i < fields.size() && i < setters.size(); i++) {
+                    String value = fields.get(i).strip();
+                    if (setters.get(i) != null && !value.isEmpty()) {
+                        setters.get(i).accept(request, value);
+                    }
+                }
+            } catch (IllegalArgumentException ex) {
+                return ImportRow.unreadable(start, ex.getMessage());
+            }
+            return ImportRow.parsed(start, request);
+        }
+
+        /**
+         * Reads one RFC 4180 record; quoted fields may contain commas, doubled quotes and line breaks
+         *
+         * @return the fields, or null at the end of the input
+         */
+        private List<String> readRecord() throws IOException {
+            int c = in.read();
+            if (c < 0) {
+                return null;
+            }
+
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            while (c >= 0) {
+                if (quoted) {
+                    if (c == '"') {
+                        in.mark(1);
+                        if (in.read() != '"') {
+                            in.reset();
+                            quoted = false;
+                        } else {
+                            field.append('"');
+                        }
+                    } else {
+                        if (c == '\n') {
+                            line++;
+                        }
+                        field.append((char) c);
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '\n') {
+                    line++;
+                    break;
+                } else if (c != '\r') {
+                    field.append((char) c);
+                }
+                c = in.read();
+            }
+            fields.add(field.toString());
+            return fields;
+        }
+
+        private static <T> BiConsumer<CreateProductRequest, String> numeric(String column, Function<String, T> parser,
+                BiConsumer<CreateProductRequest, T> setter) {
+            return (request, value) -> {
+                try {
+                    setter.accept(request, parser.apply(value));
+                } catch (NumberFormatException ex) {
+                    throw new IllegalArgumentException("Invalid " + column + ": " + value);
+                }
+            };
+        }
+    }
+}
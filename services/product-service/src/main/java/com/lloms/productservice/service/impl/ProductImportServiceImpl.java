@@ -0,0 +1,467 @@
+package com.lloms.productservice.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lloms.productservice.dto.request.CreateProductRequest;
+import com.lloms.productservice.dto.request.ExportFormat;
+import com.lloms.productservice.dto.response.ProductImportError;
+import com.lloms.productservice.dto.response.ProductImportResponse;
+import com.lloms.productservice.entity.enums.ProductStatus;
+import com.lloms.productservice.event.ProductChangedEvent;
+import com.lloms.productservice.event.ProductChangedEvent.ProductChange;
+import com.lloms.productservice.exception.ImportJobNotFoundException;
+import com.lloms.productservice.repository.ProductImportJobRepository;
+import com.lloms.productservice.repository.ProductImportRepository;
+import com.lloms.productservice.repository.ProductImportRepository.NewProduct;
+import com.lloms.productservice.repository.StockJdbcRepository;
+import com.lloms.productservice.repository.StockJdbcRepository.StockDelta;
+import com.lloms.productservice.service.ProductImportService;
+import com.lloms.productservice.service.impl.ProductImportReader.ImportRow;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk product import pipeline.
+ * The upload is spooled to a temporary file and imported in the background, one chunk
+ * at a time: rows are validated in parallel, SKU/barcode uniqueness and category/outlet
+ * references are resolved with one set-based query each, and the accepted rows are
+ * inserted as JDBC batches in one transaction per chunk. Jobs run one after another on
+ * the replica that accepted the upload; their progress is written to product_import_jobs
+ * after every chunk, so a poll may land on any replica. A job whose replica dies without
+ * shutting down stays RUNNING there until it is purged.
+ */
+@Service
+@Slf4j
+public class ProductImportServiceImpl implements ProductImportService {
+
+    private static final int CHUNK_SIZE = 2000;
+    private static final int MAX_REPORTED_ERRORS = 1000;
+    private static final int INSERT_ATTEMPTS = 2;
+    private static final Duration JOB_RETENTION = Duration.ofHours(24);
+    private static final String REFERENCE_TYPE = "IMPORT";
+
+    private final ProductImportRepository productImportRepository;
+    private final ProductImportJobRepository productImportJobRepository;
+    private final StockJdbcRepository stockJdbcRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter importedRows;
+    private final Counter rejectedRows;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(
+            runnable -> new Thread(runnable, "product-import"));
+    // Jobs queued or running on this replica
+    private final Map<String, ImportJob> jobs = new ConcurrentHashMap<>();
+
+    public ProductImportServiceImpl(ProductImportRepository productImportRepository,
+            ProductImportJobRepository productImportJobRepository, StockJdbcRepository stockJdbcRepository, ApplicationEventPublisher eventPublisher, Validator validator,
+            ObjectMapper objectMapper, PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        this.productImportRepository = productImportRepository;
+        this.productImportJobRepository = productImportJobRepository;
+        this.stockJdbcRepository = stockJdbcRepository;
+        this.eventPublisher = eventPublisher;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.importedRows = Counter.builder("product.import.rows").tag("outcome", "imported")
+                .description("Rows processed by bulk product imports")
+                .register(meterRegistry);
+        this.rejectedRows = Counter.builder("product.import.rows").tag("outcome", "rejected")
+                .description("Rows processed by bulk product imports")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public ProductImportResponse startImport(ExportFormat format, Long defaultOutletId, InputStream content,
+            String importedBy) throws IOException {
+        productImportJobRepository.deleteFinishedBefore(LocalDateTime.now().minus(JOB_RETENTION));
+
+        ImportJob job = new ImportJob(UUID.randomUUID().toString(), importedBy);
+        productImportJobRepository.save(job.toResponse(), importedBy);
+
+        Path file = Files.createTempFile("product-import-", "." + format.getFileExtension());
+        try (content) {
+            Files.copy(content, file, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException ex) {
+            Files.deleteIfExists(file);
+            job.finish(ProductImportResponse.Status.FAILED, "Upload could not be stored: " + ex.getMessage());
+            persist(job);
+            throw ex;
+        }
+
+        jobs.put(job.id, job);
+        log.info("Queued product import {} ({} bytes of {}) by user: {}", job.id, Files.size(file), format,
+                importedBy);
+        executor.execute(() -> run(job, file, format, defaultOutletId, importedBy));
+        return job.toResponse();
+    }
+
+    @Override
+    public ProductImportResponse getImport(String jobId) {
+        ImportJob job = jobs.get(jobId);
+        if (job != null) {
+            return job.toResponse();
+        }
+        return productImportJobRepository.find(jobId)
+                .orElseThrow(() -> new ImportJobNotFoundException("Import job not found with id: " + jobId));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+        for (ImportJob job : jobs.values()) {
+            job.finish(ProductImportResponse.Status.FAILED, "Interrupted by service shutdown");
+            persist(job);
+        }
+    }
+
+    private void run(ImportJob job, Path file, ExportFormat format, Long defaultOutletId, String importedBy) {
+        job.startedAt = LocalDateTime.now();
+        job.status = ProductImportResponse.Status.RUNNING;
+        persist(job);
+        long start = System.currentTimeMillis();
+
+        try (InputStream input = Files.newInputStream(file);
+                ProductImportReader reader = ProductImportReader.create(format, input, objectMapper)) {
+            References references = new References();
+            List<ImportRow> chunk = new ArrayList<>(CHUNK_SIZE);
+            for (ImportRow row = reader.next(); row != null; row = reader.next()) {
+                chunk.add(row);
+                if (chunk.size() == CHUNK_SIZE) {
+                    importChunk(job, chunk, defaultOutletId, references, importedBy);
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                importChunk(job, chunk, defaultOutletId, references, importedBy);
+            }
+            job.finish(ProductImportResponse.Status.COMPLETED, null);
+            log.info("Product import {} completed: {} imported, {} rejected in {} ms", job.id, job.imported.get(),
+                    job.rejected.get(), System.currentTimeMillis() - start);
+        } catch (IOException | RuntimeException ex) {
+            job.finish(ProductImportResponse.Status.FAILED, ex.getMessage());
+            log.error("Product import {} failed after {} rows", job.id, job.processed.get(), ex);
+        } finally {
+            persist(job);
+            jobs.remove(job.id);
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException ex) {
+                log.warn("Could not delete import file {}: {}", file, ex.getMessage());
+            }
+        }
+    }
+
+    private void importChunk(ImportJob job, List<ImportRow> chunk, Long defaultOutletId, References references,
+            String importedBy) {
+        // Bean validation is CPU bound and independent per row
+        List<Candidate> candidates = chunk.parallelStream()
+                .map(row -> validate(row, defaultOutletId))
+                .toList();
+
+        List<Candidate> accepted = new ArrayList<>(candidates.size());
+        for (Candidate candidate : candidates) {
+            if (candidate.error == null) {
+                rejectFileDuplicates(candidate, references);
+            }
+            if (candidate.error == null) {
+                accepted.add(candidate);
+            }
+        }
+
+        for (int attempt = 1; attempt <= INSERT_ATTEMPTS && !accepted.isEmpty(); attempt++) {
+            accepted = rejectConflicts(accepted, references);
+            if (accepted.isEmpty()) {
+                break;
+            }
+            try {
+                insert(job, accepted, importedBy);
+                break;
+            } catch (DataIntegrityViolationException ex) {
+                // A concurrent write took a SKU or barcode after the check, re-resolve and retry once
+                log.warn("Product import {} chunk conflicted on attempt {}: {}", job.id, attempt,
+                        ex.getMostSpecificCause().getMessage());
+                if (attempt == INSERT_ATTEMPTS) {
+                    accepted.forEach(candidate -> candidate.error = "Chunk could not be inserted: "
+                            + ex.getMostSpecificCause().getMessage());
+                }
+            }
+        }
+
+        for (Candidate candidate : candidates) {
+            if (candidate.error != null) {
+                job.reject(candidate);
+                rejectedRows.increment();
+            }
+        }
+        job.processed.addAndGet(chunk.size());
+        persist(job);
+        log.info("Product import {}: {} rows processed, {} imported, {} rejected", job.id, job.processed.get(),
+                job.imported.get(), job.rejected.get());
+    }
+
+    private Candidate validate(ImportRow row, Long defaultOutletId) {
+        if (row.error() != null) {
+            return new Candidate(row.line(), null, row.error());
+        }
+
+        CreateProductRequest request = row.request();
+        request.setSku(blankToNull(request.getSku()));
+        request.setBarcode(blankToNull(request.getBarcode()));
+        if (request.getOutletId() == null) {
+            request.setOutletId(defaultOutletId);
+        }
+
+        Set<ConstraintViolation<CreateProductRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            return new Candidate(row.line(), request, violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; ")));
+        }
+        return new Candidate(row.line(), request, null);
+    }
+
+    private static void rejectFileDuplicates(Candidate candidate, References references) {
+        CreateProductRequest request = candidate.request;
+        if (request.getSku() != null && !references.fileSkus.add(request.getSku())) {
+            candidate.error = "Duplicate SKU in file: " + request.getSku();
+        } else if (request.getBarcode() != null && !references.fileBarcodes.add(request.getBarcode())) {
+            candidate.error = "Duplicate barcode in file: " + request.getBarcode();
+        }
+    }
+
+    /**
+     * Rejects rows whose SKU or barcode is taken or whose category or outlet does not exist
+     *
+     * @return the rows still accepted
+     */
+    private List<Candidate> rejectConflicts(List<Candidate> candidates, References references) {
+        Set<String> takenSkus = productImportRepository.findExistingSkus(candidates.stream()
+                .map(candidate -> candidate.request.getSku())
+                .filter(sku -> sku != null)
+                .collect(Collectors.toSet()));
+        Set<String> takenBarcodes = productImportRepository.findExistingBarcodes(candidates.stream()
+                .map(candidate -> candidate.request.getBarcode())
+                .filter(barcode -> barcode != null)
+                .collect(Collectors.toSet()));
+        references.resolveCategories(candidates.stream()
+                .map(candidate -> candidate.request.getCategoryId())
+                .collect(Collectors.toSet()));
+        references.resolveOutlets(candidates.stream()
+                .map(candidate -> candidate.request.getOutletId())
+                .collect(Collectors.toSet()));
+
+        List<Candidate> accepted = new ArrayList<>(candidates.size());
+        for (Candidate candidate : candidates) {
+            CreateProductRequest request = candidate.request;
+            if (request.getSku() != null && takenSkus.contains(request.getSku())) {
+                candidate.error = "Product with SKU " + request.getSku() + " already exists";
+            } else if (request.getBarcode() != null && takenBarcodes.contains(request.getBarcode())) {
+                candidate.error = "Product with barcode " + request.getBarcode() + " already exists";
+            } else if (!references.categoryIds.contains(request.getCategoryId())) {
+                candidate.error = "Category not found with id: " + request.getCategoryId();
+            } else if (!references.outletIds.contains(request.getOutletId())) {
+                candidate.error = "Outlet not found with id: " + request.getOutletId();
+            } else {
+                accepted.add(candidate);
+            }
+        }
+        return accepted;
+    }
+
+    private void insert(ImportJob job, List<Candidate> accepted, String importedBy) {
+        transactionTemplate.executeWithoutResult(status -> {
+            List<Long> ids = productImportRepository.allocateIds(accepted.size());
+            List<NewProduct> products = new ArrayList<>(accepted.size());
+            List<StockDelta> openingStock = new ArrayList<>();
+            List<ProductChange> changes = new ArrayList<>(accepted.size());
+
+            for (int i = 0; i < accepted.size(); i++) {
+                CreateProductRequest request = accepted.get(i).request;
+                Long id = ids.get(i);
+                products.add(toNewProduct(id, request));
+                if (request.getStockQuantity() > 0) {
+                    openingStock.add(new StockDelta(id, request.getStockQuantity(), "Opening stock"));
+                }
+                changes.add(ProductChange.created(id, request.getSku(), request.getBarcode()));
+            }
+
+            productImportRepository.insertProducts(products, importedBy);
+            if (!openingStock.isEmpty()) {
+                stockJdbcRepository.insertMovements(openingStock, job.id, REFERENCE_TYPE, importedBy);
+            }
+            eventPublisher.publishEvent(ProductChangedEvent.of(changes));
+        });
+
+        job.imported.addAndGet(accepted.size());
+        importedRows.increment(accepted.size());
+    }
+
+    private static NewProduct toNewProduct(Long id, CreateProductRequest request) {
+        int stockQuantity = request.getStockQuantity();
+        Integer minStockLevel = request.getMinStockLevel();
+        ProductStatus status = ProductStatus.ACTIVE;
+        if (stockQuantity <= 0) {
+            status = ProductStatus.OUT_OF_STOCK;
+        } else if (minStockLevel != null && stockQuantity <= minStockLevel) {
+            status = ProductStatus.LOW_STOCK;
+        }
+
+        return NewProduct.builder()
+                .id(id)
+                .name(request.getName())
+                .description(request.getDescription())
+                .price(request.getPrice())
+                .costPrice(request.getCostPrice())
+                .stockQuantity(stockQuantity)
+                .minStockLevel(minStockLevel)
+                .sku(request.getSku())
+                .barcode(request.getBarcode())
+                .categoryId(request.getCategoryId())
+                .outletId(request.getOutletId())
+                .status(status)
+                .imageUrl(request.getImageUrl())
+                .weight(request.getWeight())
+                .unit(request.getUnit())
+                .isTaxable(!Boolean.FALSE.equals(request.getIsTaxable()))
+                .taxRate(request.getTaxRate())
+                .build();
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value.strip();
+    }
+
+    private void persist(ImportJob job) {
+        try {
+            productImportJobRepository.save(job.toResponse(), job.createdBy);
+        } catch (DataAccessException ex) {
+            // The import carries on; polls on other replicas see the last stored progress
+            log.warn("Could not store progress of product import {}: {}", job.id, ex.getMessage());
+        }
+    }
+
+    private static final class Candidate {
+
+        final long line;
+        final CreateProductRequest request;
+        String error;
+
+        Candidate(long line, CreateProductRequest request, String error) {
+            this.line = line;
+            this.request = request;
+            this.error = error;
+        }
+    }
+
+    /**
+     * Per-job lookup state: codes seen earlier in the file and category/outlet IDs already resolved
+     */
+    private final class References {
+
+        final Set<String> fileSkus = new HashSet<>();
+        final Set<String> fileBarcodes = new HashSet<>();
+        final Set<Long> categoryIds = new HashSet<>();
+        final Set<Long> outletIds = new HashSet<>();
+        private final Set<Long> checkedCategoryIds = new HashSet<>();
+        private final Set<Long> checkedOutletIds = new HashSet<>();
+
+        void resolveCategories(Set<Long> ids) {
+            ids.removeAll(checkedCategoryIds);
+            categoryIds.addAll(productImportRepository.findExistingCategoryIds(ids));
+            checkedCategoryIds.addAll(ids);
+        }
+
+        void resolveOutlets(Set<Long> ids) {
+            ids.removeAll(checkedOutletIds);
+            outletIds.addAll(productImportRepository.findExistingOutletIds(ids));
+            checkedOutletIds.addAll(ids);
+        }
+    }
+
+    private static final class ImportJob {
+
+        final String id;
+        final String createdBy;
+        final AtomicLong processed = new AtomicLong();
+        final AtomicLong imported = new AtomicLong();
+        final AtomicLong rejected = new AtomicLong();
+        final List<ProductImportError> errors = new ArrayList<>();
+        volatile ProductImportResponse.Status status = ProductImportResponse.Status.QUEUED;
+        volatile String message;
+        volatile LocalDateTime startedAt;
+        volatile LocalDateTime finishedAt;
+
+        ImportJob(String id, String createdBy) {
+            this.id = id;
+            this.createdBy = createdBy;
+        }
+
+        void reject(Candidate candidate) {
+            rejected.incrementAndGet();
+            synchronized (errors) {
+                if (errors.size() < MAX_REPORTED_ERRORS) {
+                    errors.add(ProductImportError.builder()
+                            .line(candidate.line)
+                            .sku(candidate.request != null ? candidate.request.getSku() : null)
+                            .message(candidate.error)
+                            .build());
+                }
+            }
+        }
+
+        void finish(ProductImportResponse.Status finalStatus, String finalMessage) {
+            message = finalMessage;
+            finishedAt = LocalDateTime.now();
+            status = finalStatus;
+        }
+
+        ProductImportResponse toResponse() {
+            List<ProductImportError> reported;
+            synchronized (errors) {
+                reported = List.copyOf(errors);
+            }
+            return ProductImportResponse.builder()
+                    .jobId(id)
+                    .status(status)
+                    .processedRows(processed.get())
+                    .importedRows(imported.get())
+                    .rejectedRows(rejected.get())
+                    .errors(reported)
+                    .message(message)
+                    .startedAt(startedAt)
+                    .finishedAt(finishedAt)
+                    .build();
+        }
+    }
+}
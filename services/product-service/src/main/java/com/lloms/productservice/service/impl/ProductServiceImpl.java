@@ -1,8 +1,20 @@
 package com.lloms.productservice.service.impl;
 
+import com.lloms.productservice.dto.paginated.CursorPageResponse;
+import com.lloms.productservice.dto.request.BatchStockAdjustmentRequest;
 import com.lloms.productservice.dto.request.CreateProductRequest;
+import com.lloms.productservice.dto.request.ExportFormat;
+import com.lloms.productservice.dto.request.StockAdjustmentLine;
+import com.lloms.productservice.dto.request.StockReservationRequest;
 import com.lloms.productservice.dto.request.UpdateProductRequest;
+import com.lloms.productservice.dto.response.BatchStockAdjustmentResponse;
+import com.lloms.productservice.dto.response.PriceAsOfResponse;
 import com.lloms.productservice.dto.response.ProductResponse;
+import com.lloms.productservice.dto.response.StockAdjustmentResult;
+import com.lloms.productservice.dto.response.StockAsOfResponse;
+import com.lloms.productservice.dto.response.StockReservationResponse;
+import com.lloms.productservice.cache.PriceTimeline;
+import com.lloms.productservice.cache.PriceTimelineCache;
 import com.lloms.productservice.entity.Category;
 import com.lloms.productservice.entity.Outlet;
 import com.lloms.productservice.entity.PriceHistory;
@@ -10,27 +22,71 @@ import com.lloms.productservice.entity.Product;
 import com.lloms.productservice.entity.StockMovement;
 import com.lloms.productservice.entity.enums.ProductStatus;
 import com.lloms.productservice.entity.enums.StockMovementType;
+import com.lloms.productservice.event.ProductChangedEvent;
+import com.lloms.productservice.event.ProductChangedEvent.ProductChange;
 import com.lloms.productservice.exception.CategoryNotFoundException;
 import com.lloms.productservice.exception.DuplicateProductException;
+import com.lloms.productservice.exception.InsufficientStockException;
 import com.lloms.productservice.exception.OutletNotFoundException;
 import com.lloms.productservice.exception.ProductNotFoundException;
+import com.lloms.productservice.index.ProductSnapshot;
+import com.lloms.productservice.index.ScanIndex;
+import com.lloms.productservice.index.StockAlertIndex;
+import com.lloms.productservice.index.StockAlertIndex.StockAlert;
+import com.lloms.productservice.index.SuggestIndex;
 import com.lloms.productservice.mapper.ProductMapper;
+import com.lloms.productservice.repository.CatalogVersion;
+import com.lloms.productservice.repository.CatalogVersionRepository;
 import com.lloms.productservice.repository.CategoryRepository;
 import com.lloms.productservice.repository.OutletRepository;
+import com.lloms.productservice.repository.PriceHistoryRepository;
 import com.lloms.productservice.repository.ProductRepository;
+import com.lloms.productservice.repository.ProductSearchRepository;
+import com.lloms.productservice.repository.ProductSpecifications;
+import com.lloms.productservice.repository.StockJdbcRepository;
+import com.lloms.productservice.repository.StockJdbcRepository.StockDelta;
+import com.lloms.productservice.repository.StockJdbcRepository.StockRow;
+import com.lloms.productservice.repository.StockLedgerRepository;
 import com.lloms.productservice.service.ProductService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.KeysetScrollPosition;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Implementation of ProductService
@@ -42,12 +98,27 @@ import java.util.List;
 public class ProductServiceImpl implements ProductService {
 
     private final ProductRepository productRepository;
+    private final CatalogVersionRepository catalogVersionRepository;
     private final CategoryRepository categoryRepository;
     private final OutletRepository outletRepository;
     private final ProductMapper productMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ScanIndex scanIndex;
+    private final SuggestIndex suggestIndex;
+    private final StockAlertIndex stockAlertIndex;
+    private final StockJdbcRepository stockJdbcRepository;
+    private final StockLedgerRepository stockLedgerRepository;
+    private final ProductSearchRepository productSearchRepository;
+    private final PriceHistoryRepository priceHistoryRepository;
+    private final PriceTimelineCache priceTimelineCache;
+    private final MeterRegistry meterRegistry;
+    private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
+
+    @Value("${app.stock.contention-threshold:25ms}")
+    private Duration contentionThreshold;
 
     @Override
-    @CacheEvict(value = "products", allEntries = true)
     public ProductResponse createProduct(CreateProductRequest request, String createdBy) {
         log.info("Creating product: {}", request.getName());
 
@@ -96,21 +167,27 @@ public class ProductServiceImpl implements ProductService {
         } else if (product.isLowStock()) {
             product.setStatus(ProductStatus.LOW_STOCK);
         }
+        product.recordOpeningStock(createdBy);
 
         Product savedProduct = productRepository.save(product);
         log.info("Product created successfully with ID: {}", savedProduct.getId());
 
+        eventPublisher.publishEvent(ProductChangedEvent.of(
+                ProductChange.created(savedProduct.getId(), savedProduct.getSku(), savedProduct.getBarcode())));
+
         return productMapper.toResponse(savedProduct);
     }
 
     @Override
-    @CacheEvict(value = "products", allEntries = true)
     public ProductResponse updateProduct(Long id, UpdateProductRequest request, String updatedBy) {
         log.info("Updating product with ID: {}", id);
 
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new ProductNotFoundException("Product not found with id: " + id));
 
+        String previousSku = product.getSku();
+        String previousBarcode = product.getBarcode();
+
         // Validate SKU uniqueness if changed
         if (request.getSku() != null && !request.getSku().equals(product.getSku()) &&
                 existsBySku(request.getSku(), id)) {
@@ -174,12 +251,15 @@ public class ProductServiceImpl implements ProductService {
         Product updatedProduct = productRepository.save(product);
         log.info("Product updated successfully with ID: {}", updatedProduct.getId());
 
+        eventPublisher.publishEvent(
+                ProductChangedEvent.of(ProductChange.of(updatedProduct, previousSku, previousBarcode)));
+
         return productMapper.toResponse(updatedProduct);
     }
 
     @Override
     @Transactional(readOnly = true)
-    @Cacheable(value = "products", key = "#id")
+    @Cacheable(value = "products", key = "#id", sync = true)
     public ProductResponse getProductById(Long id) {
         log.debug("Getting product by ID: {}", id);
 
@@ -191,7 +271,7 @@ public class ProductServiceImpl implements ProductService {
 
     @Override
     @Transactional(readOnly = true)
-    @Cacheable(value = "products", key = "'sku:' + #sku")
+    @Cacheable(value = "products", key = "'sku:' + #sku", sync = true)
     public ProductResponse getProductBySku(String sku) {
         log.debug("Getting product by SKU: {}", sku);
 
@@ -203,7 +283,7 @@ public class ProductServiceImpl implements ProductService {
 
     @Override
     @Transactional(readOnly = true)
-    @Cacheable(value = "products", key = "'barcode:' + #barcode")
+    @Cacheable(value = "products", key = "'barcode:' + #barcode", sync = true)
     public ProductResponse getProductByBarcode(String barcode) {
         log.debug("Getting product by barcode: {}", barcode);
 
@@ -213,6 +293,48 @@ public class ProductServiceImpl implements ProductService {
         return productMapper.toResponse(product);
     }
 
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public ProductSnapshot scanProduct(String code) {
+        if (scanIndex.isReady()) {
+            ProductSnapshot snapshot = scanIndex.find(code);
+            if (snapshot != null) {
+                return snapshot;
+            }
+            // The product may have been added on another replica and its change not received yet
+            log.debug("Code not in scan index, looking it up in database: {}", code);
+        } else {
+            log.debug("Scan index not ready, looking up code in database: {}", code);
+        }
+
+        return productRepository.findForScan(code).stream()
+                .findFirst()
+                .map(productMapper::toSnapshot)
+                .orElseThrow(() -> new ProductNotFoundException("Product not found with code: " + code));
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public List<ProductSnapshot> suggestProducts(String query, Long outletId, int limit) {
+        if (suggestIndex.isReady()) {
+            return suggestIndex.suggest(query, outletId, limit);
+        }
+
+        log.debug("Suggest index not ready, searching database for: {}", query);
+        if (query.isBlank()) {
+            return List.of();
+        }
+        List<Long> ids = productSearchRepository.searchIds(query, 0, limit);
+        Map<Long, Product> products = productRepository.findAllForIndexByIdIn(ids).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        return ids.stream()
+                .map(products::get)
+                .filter(Objects::nonNull)
+                .filter(product -> outletId == null || outletId.equals(product.getOutlet().getId()))
+                .map(productMapper::toSnapshot)
+                .toList();
+    }
+
     @Override
     @Transactional(readOnly = true)
     public Page<ProductResponse> getAllProducts(Pageable pageable) {
@@ -222,6 +344,43 @@ public class ProductServiceImpl implements ProductService {
         return products.map(productMapper::toResponse);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageResponse<ProductResponse> scrollProducts(Long categoryId, Long outletId, ProductStatus status,
+            BigDecimal minPrice, BigDecimal maxPrice, String sortProperty, Sort.Direction direction, int size,
+            String cursor) {
+        log.debug("Scrolling products - categoryId: {}, outletId: {}, status: {}, sort: {} {}, size: {}",
+                categoryId, outletId, status, sortProperty, direction, size);
+
+        Sort sort = ProductCursorCodec.sortFor(sortProperty, direction);
+        KeysetScrollPosition position = cursor == null || cursor.isBlank()
+                ? ScrollPosition.keyset()
+                : ProductCursorCodec.decode(cursor, sortProperty, direction);
+
+        Specification<Product> specification = Specification.where(ProductSpecifications.notDeleted())
+                .and(ProductSpecifications.hasCategory(categoryId))
+                .and(ProductSpecifications.hasOutlet(outletId))
+                .and(ProductSpecifications.hasStatus(status))
+                .and(ProductSpecifications.priceAtLeast(minPrice))
+                .and(ProductSpecifications.priceAtMost(maxPrice));
+
+        // Seeks past the last key instead of using OFFSET, and reads one extra row instead of a COUNT
+        Window<Product> window = productRepository.findBy(specification,
+                query -> query.project("category", "outlet").sortBy(sort).limit(size).scroll(position));
+
+        String nextCursor = window.hasNext() && !window.isEmpty()
+                ? ProductCursorCodec.encode(sortProperty, direction,
+                        (KeysetScrollPosition) window.positionAt(window.size() - 1))
+                : null;
+
+        return CursorPageResponse.<ProductResponse>builder()
+                .content(window.map(productMapper::toResponse).getContent())
+                .size(window.size())
+                .hasNext(nextCursor != null)
+                .nextCursor(nextCursor)
+                .build();
+    }
+
     @Override
     @Transactional(readOnly = true)
     public Page<ProductResponse> getProductsByCategory(Long categoryId, Pageable pageable) {
@@ -231,6 +390,21 @@ public class ProductServiceImpl implements ProductService {
         return products.map(productMapper::toResponse);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public CatalogVersion getCatalogVersion() {
+        return catalogVersionRepository.find();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<ProductResponse> getProductsInCategoryTree(Long categoryId, Pageable pageable) {
+        log.debug("Getting products in category tree of ID: {}", categoryId);
+
+        Page<Product> products = productRepository.findInCategoryTree(categoryId, pageable);
+        return products.map(productMapper::toResponse);
+    }
+
     @Override
     @Transactional(readOnly = true)
     public Page<ProductResponse> getProductsByOutlet(Long outletId, Pageable pageable) {
@@ -254,8 +428,18 @@ public class ProductServiceImpl implements ProductService {
     public Page<ProductResponse> searchProductsByName(String name, Pageable pageable) {
         log.debug("Searching products by name: {}", name);
 
-        Page<Product> products = productRepository.findByNameContainingIgnoreCaseAndDeletedFalse(name, pageable);
-        return products.map(productMapper::toResponse);
+        if (name.isBlank()) {
+            return Page.empty(pageable);
+        }
+
+        // Ranking replaces any requested sort; only the page window is taken from the pageable
+        long total = productSearchRepository.count(name);
+        if (total <= pageable.getOffset()) {
+            return new PageImpl<>(List.of(), pageable, total);
+        }
+
+        List<Long> ids = productSearchRepository.searchIds(name, pageable.getOffset(), pageable.getPageSize());
+        return new PageImpl<>(loadResponsesInOrder(ids), pageable, total);
     }
 
     @Override
@@ -280,24 +464,27 @@ public class ProductServiceImpl implements ProductService {
 
     @Override
     @Transactional(readOnly = true)
-    public List<ProductResponse> getLowStockProducts() {
-        log.debug("Getting low stock products");
+    public Page<ProductResponse> getLowStockProducts(Long outletId, Pageable pageable) {
+        log.debug("Getting low stock products for outlet ID: {}", outletId);
 
-        List<Product> products = productRepository.findLowStockProducts();
-        return products.stream().map(productMapper::toResponse).toList();
+        if (stockAlertIndex.isReady()) {
+            return alertPage(StockAlert.LOW_STOCK, outletId, pageable);
+        }
+        return productRepository.findLowStockProducts(outletId, pageable).map(productMapper::toResponse);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<ProductResponse> getOutOfStockProducts() {
-        log.debug("Getting out of stock products");
+    public Page<ProductResponse> getOutOfStockProducts(Long outletId, Pageable pageable) {
+        log.debug("Getting out of stock products for outlet ID: {}", outletId);
 
-        List<Product> products = productRepository.findOutOfStockProducts();
-        return products.stream().map(productMapper::toResponse).toList();
+        if (stockAlertIndex.isReady()) {
+            return alertPage(StockAlert.OUT_OF_STOCK, outletId, pageable);
+        }
+        return productRepository.findOutOfStockProducts(outletId, pageable).map(productMapper::toResponse);
     }
 
     @Override
-    @CacheEvict(value = "products", allEntries = true)
     public ProductResponse updateStock(Long id, Integer quantity, String reason, String updatedBy) {
         log.info("Updating stock for product ID: {} by quantity: {}", id, quantity);
 
@@ -309,11 +496,128 @@ public class ProductServiceImpl implements ProductService {
         Product updatedProduct = productRepository.save(product);
         log.info("Stock updated successfully for product ID: {}", id);
 
+        eventPublisher.publishEvent(ProductChangedEvent.of(ProductChange.of(updatedProduct)));
+
         return productMapper.toResponse(updatedProduct);
     }
 
     @Override
-    @CacheEvict(value = "products", allEntries = true)
+    public StockReservationResponse reserveStock(Long id, StockReservationRequest request, String performedBy) {
+        log.info("Reserving {} units of product ID: {}", request.getQuantity(), id);
+
+        long start = System.nanoTime();
+        StockRow row = stockJdbcRepository.reserve(id, request.getQuantity(), request.getReason(),
+                request.getReferenceId(), request.getReferenceType(), performedBy).orElse(null);
+        long elapsed = System.nanoTime() - start;
+
+        if (row == null) {
+            Integer available = stockJdbcRepository.findStockQuantity(id)
+                    .orElseThrow(() -> new ProductNotFoundException("Product not found with id: " + id));
+            recordReservation("insufficient", elapsed);
+            throw new InsufficientStockException("Insufficient stock for product " + id + ": requested "
+                    + request.getQuantity() + ", available " + available);
+        }
+
+        recordReservation("reserved", elapsed);
+        if (elapsed > contentionThreshold.toNanos()) {
+            // Only SKUs that actually wait on the row lock get their own series
+            Counter.builder("product.stock.reservation.contended")
+                    .tag("sku", String.valueOf(row.sku()))
+                    .register(meterRegistry)
+                    .increment();
+        }
+
+        eventPublisher.publishEvent(ProductChangedEvent.of(ProductChange.of(row.productId(), row.sku(), row.barcode())));
+
+        return StockReservationResponse.builder()
+                .productId(row.productId())
+                .sku(row.sku())
+                .reservedQuantity(request.getQuantity())
+                .remainingStock(row.stockQuantity())
+                .status(row.status())
+                .build();
+    }
+
+    @Override
+    public BatchStockAdjustmentResponse adjustStockBatch(BatchStockAdjustmentRequest request, String performedBy) {
+        List<StockAdjustmentLine> lines = request.getLines();
+        log.info("Applying batch stock adjustment of {} lines, reference: {}", lines.size(), request.getReferenceId());
+
+        Map<Long, StockRow> locked = stockJdbcRepository.lockForUpdate(lines.stream()
+                        .map(StockAdjustmentLine::getProductId)
+                        .collect(Collectors.toCollection(TreeSet::new)))
+                .stream()
+                .collect(Collectors.toMap(StockRow::productId, Function.identity()));
+
+        // Lines are evaluated in request order against the running stock of each product
+        Map<Long, Integer> running = new HashMap<>();
+        Map<Long, Integer> netDeltas = new TreeMap<>();
+        List<StockDelta> movements = new ArrayList<>();
+        List<StockAdjustmentResult> results = new ArrayList<>(lines.size());
+
+        for (int i = 0; i < lines.size(); i++) {
+            StockAdjustmentLine line = lines.get(i);
+            StockAdjustmentResult.StockAdjustmentResultBuilder result = StockAdjustmentResult.builder()
+                    .line(i + 1)
+                    .productId(line.getProductId())
+                    .quantity(line.getQuantity());
+
+            StockRow row = locked.get(line.getProductId());
+            if (row == null) {
+                results.add(result.applied(false).message("Product not found").build());
+                continue;
+            }
+
+            int available = running.getOrDefault(row.productId(), row.stockQuantity());
+            if (line.getQuantity() == 0) {
+                results.add(result.applied(false).remainingStock(available)
+                        .message("Quantity must not be zero").build());
+                continue;
+            }
+
+            int remaining = available + line.getQuantity();
+            if (remaining < 0) {
+                results.add(result.applied(false).remainingStock(available)
+                        .message("Insufficient stock: requested " + -line.getQuantity() + ", available " + available)
+                        .build());
+                continue;
+            }
+
+            running.put(row.productId(), remaining);
+            netDeltas.merge(row.productId(), line.getQuantity(), Integer::sum);
+            movements.add(new StockDelta(row.productId(), line.getQuantity(), line.getReason()));
+            results.add(result.applied(true).remainingStock(remaining).build());
+        }
+
+        List<StockDelta> updates = netDeltas.entrySet().stream()
+                .filter(entry -> entry.getValue() != 0)
+                .map(entry -> new StockDelta(entry.getKey(), entry.getValue(), null))
+                .toList();
+        if (!updates.isEmpty()) {
+            stockJdbcRepository.applyDeltas(updates, performedBy);
+
+            List<ProductChange> changes = updates.stream()
+                    .map(update -> locked.get(update.productId()))
+                    .map(row -> ProductChange.of(row.productId(), row.sku(), row.barcode()))
+                    .toList();
+            eventPublisher.publishEvent(ProductChangedEvent.of(changes));
+        }
+        if (!movements.isEmpty()) {
+            stockJdbcRepository.insertMovements(movements, request.getReferenceId(), request.getReferenceType(),
+                    performedBy);
+        }
+
+        log.info("Batch stock adjustment applied {} of {} lines across {} products",
+                movements.size(), lines.size(), updates.size());
+
+        return BatchStockAdjustmentResponse.builder()
+                .appliedLines(movements.size())
+                .rejectedLines(lines.size() - movements.size())
+                .results(results)
+                .build();
+    }
+
+    @Override
     public ProductResponse updatePrice(Long id, BigDecimal newPrice, String reason, String updatedBy) {
         log.info("Updating price for product ID: {} to: {}", id, newPrice);
 
@@ -327,11 +631,45 @@ public class ProductServiceImpl implements ProductService {
         Product updatedProduct = productRepository.save(product);
         log.info("Price updated successfully for product ID: {}", id);
 
+        eventPublisher.publishEvent(ProductChangedEvent.of(ProductChange.of(updatedProduct)));
+
         return productMapper.toResponse(updatedProduct);
     }
 
     @Override
-    @CacheEvict(value = "products", allEntries = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public PriceAsOfResponse getPriceAsOf(Long id, LocalDateTime at) {
+        log.debug("Resolving price of product ID: {} at {}", id, at);
+
+        PriceTimeline.PriceAt priceAt = priceTimelineCache.priceAt(id, at)
+                .orElseThrow(() -> new ProductNotFoundException("Product not found with id: " + id));
+
+        return PriceAsOfResponse.builder()
+                .productId(id)
+                .at(at)
+                .price(priceAt.price())
+                .effectiveFrom(priceAt.effectiveFrom())
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public StockAsOfResponse getStockAsOf(Long id, LocalDateTime at) {
+        log.debug("Resolving stock of product ID: {} at {}", id, at);
+
+        // A product deleted since then still had stock at that time
+        if (!productRepository.existsIncludingDeletedById(id)) {
+            throw new ProductNotFoundException("Product not found with id: " + id);
+        }
+
+        return StockAsOfResponse.builder()
+                .productId(id)
+                .at(at)
+                .stockQuantity(stockLedgerRepository.stockAsOf(id, at))
+                .build();
+    }
+
+    @Override
     public ProductResponse changeStatus(Long id, ProductStatus status, String updatedBy) {
         log.info("Changing status for product ID: {} to: {}", id, status);
 
@@ -344,11 +682,12 @@ public class ProductServiceImpl implements ProductService {
         Product updatedProduct = productRepository.save(product);
         log.info("Status changed successfully for product ID: {}", id);
 
+        eventPublisher.publishEvent(ProductChangedEvent.of(ProductChange.of(updatedProduct)));
+
         return productMapper.toResponse(updatedProduct);
     }
 
     @Override
-    @CacheEvict(value = "products", allEntries = true)
     public void deleteProduct(Long id, String deletedBy) {
         log.info("Deleting product with ID: {}", id);
 
@@ -360,6 +699,8 @@ public class ProductServiceImpl implements ProductService {
 
         productRepository.save(product);
         log.info("Product deleted successfully with ID: {}", id);
+
+        eventPublisher.publishEvent(ProductChangedEvent.of(ProductChange.of(product)));
     }
 
     @Override
@@ -395,9 +736,66 @@ public class ProductServiceImpl implements ProductService {
         return products.stream().map(productMapper::toResponse).toList();
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public void exportInventoryReport(Long outletId, ExportFormat format, OutputStream outputStream)
+            throws IOException {
+        log.info("Streaming {} inventory export for outlet ID: {}", format, outletId);
+
+        long start = System.currentTimeMillis();
+        long rows = 0;
+        try (Stream<Product> products = productRepository.streamForInventoryReport(outletId);
+             InventoryExportWriter writer = InventoryExportWriter.create(format, outputStream, objectMapper)) {
+            Iterator<Product> iterator = products.iterator();
+            while (iterator.hasNext()) {
+                Product product = iterator.next();
+                writer.write(productMapper.toResponse(product));
+                // Detach as we go so the persistence context does not grow with the export
+                entityManager.detach(product);
+                rows++;
+            }
+        } catch (IOException ex) {
+            // Closing the stream releases the cursor; the read-only transaction just rolls back
+            log.info("Inventory export for outlet ID: {} aborted after {} rows: {}", outletId, rows, ex.getMessage());
+            throw ex;
+        }
+
+        log.info("Streamed {} inventory rows for outlet ID: {} in {} ms", rows, outletId,
+                System.currentTimeMillis() - start);
+    }
+
     // Private helper methods
+    /**
+     * Alert sets are served in their own order (lowest stock first); only the page window is taken from the pageable
+     */
+    private Page<ProductResponse> alertPage(StockAlert alert, Long outletId, Pageable pageable) {
+        StockAlertIndex.AlertPage page = stockAlertIndex.page(alert, outletId, pageable.getOffset(),
+                pageable.getPageSize());
+        return new PageImpl<>(loadResponsesInOrder(page.productIds()), pageable, page.total());
+    }
+
+    private List<ProductResponse> loadResponsesInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Product> products = productRepository.findAllForIndexByIdIn(ids).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        return ids.stream()
+                .map(products::get)
+                .filter(Objects::nonNull)
+                .map(productMapper::toResponse)
+                .toList();
+    }
+
+    private void recordReservation(String outcome, long elapsedNanos) {
+        Timer.builder("product.stock.reservation")
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .record(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+
     private void updateStockInternal(Product product, Integer quantity, String reason, String updatedBy) {
-        product.updateStock(quantity, reason);
+        product.updateStock(quantity, reason, updatedBy);
 
         // Update status based on stock level
         if (product.getStockQuantity() <= 0) {
@@ -421,6 +819,6 @@ public class ProductServiceImpl implements ProductService {
                 .changedBy(updatedBy)
                 .build();
 
-        product.getPriceHistories().add(priceHistory);
+        priceHistoryRepository.save(priceHistory);
     }
 }
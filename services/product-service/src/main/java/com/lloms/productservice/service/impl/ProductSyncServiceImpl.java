@@ -0,0 +1,90 @@
+package com.lloms.productservice.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.lloms.productservice.dto.response.ProductSyncRecord;
+import com.lloms.productservice.exception.OutletNotFoundException;
+import com.lloms.productservice.repository.OutletRepository;
+import com.lloms.productservice.repository.ProductChangeFeedRepository;
+import com.lloms.productservice.service.ProductSyncService;
+import com.lloms.productservice.snapshot.CatalogSnapshot;
+import com.lloms.productservice.snapshot.CatalogSnapshotStore;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Implementation of ProductSyncService, streaming the change feed straight from the database cursor
+ */
+@Service
+@Slf4j
+public class ProductSyncServiceImpl implements ProductSyncService {
+
+    private static final int FLUSH_INTERVAL = 500;
+
+    private final ProductChangeFeedRepository changeFeedRepository;
+    private final OutletRepository outletRepository;
+    private final CatalogSnapshotStore catalogSnapshotStore;
+    private final ObjectWriter objectWriter;
+    private final Duration horizon;
+
+    public ProductSyncServiceImpl(ProductChangeFeedRepository changeFeedRepository, OutletRepository outletRepository,
+            CatalogSnapshotStore catalogSnapshotStore, ObjectMapper objectMapper,
+            @Value("${app.sync.horizon:10s}") Duration horizon) {
+        this.changeFeedRepository = changeFeedRepository;
+        this.outletRepository = outletRepository;
+        this.catalogSnapshotStore = catalogSnapshotStore;
+        this.objectWriter = objectMapper.writerFor(ProductSyncRecord.class);
+        this.horizon = horizon;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamChanges(LocalDateTime since, Long afterId, Long outletId, int limit, OutputStream outputStream)
+            throws IOException {
+        log.debug("Streaming catalog changes for outlet ID: {} since {} after product ID: {}", outletId, since, afterId);
+
+        long start = System.currentTimeMillis();
+        long rows = 0;
+        Writer out = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        try (Stream<ProductSyncRecord> changes = changeFeedRepository.streamChanges(since,
+                afterId != null ? afterId : 0L, outletId, horizon, limit)) {
+            Iterator<ProductSyncRecord> iterator = changes.iterator();
+            while (iterator.hasNext()) {
+                out.write(objectWriter.writeValueAsString(iterator.next()));
+                out.write('\n');
+                if (++rows % FLUSH_INTERVAL == 0) {
+                    out.flush();
+                }
+            }
+            out.flush();
+        } catch (IOException ex) {
+            log.info("Catalog change feed for outlet ID: {} aborted after {} rows: {}", outletId, rows,
+                    ex.getMessage());
+            throw ex;
+        }
+
+        log.debug("Streamed {} catalog changes for outlet ID: {} in {} ms", rows, outletId,
+                System.currentTimeMillis() - start);
+    }
+
+    @Override
+    public CatalogSnapshot getCatalogSnapshot(Long outletId) throws IOException {
+        if (!outletRepository.existsById(outletId)) {
+            throw new OutletNotFoundException("Outlet not found with id: " + outletId);
+        }
+        return catalogSnapshotStore.get(outletId);
+    }
+}
@@ -0,0 +1,20 @@
+package com.lloms.productservice.snapshot;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+
+/**
+ * A built catalog snapshot file of one outlet.
+ * The watermark is the change feed position the snapshot is complete up to;
+ * a terminal continues with the change feed from there.
+ */
+public record CatalogSnapshot(Long outletId, Path file, long size, int productCount, long checksum,
+        LocalDateTime watermarkUpdatedAt, long watermarkId) {
+
+    /**
+     * Strong ETag; identical content always has the same checksum and size
+     */
+    public String eTag() {
+        return "\"" + outletId + "-" + Long.toHexString(checksum) + "-" + Long.toHexString(size) + "\"";
+    }
+}
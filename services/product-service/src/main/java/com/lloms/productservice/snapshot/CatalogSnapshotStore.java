@@ -0,0 +1,133 @@
+package com.lloms.productservice.snapshot;
+
+import com.lloms.productservice.dto.response.ProductSyncRecord;
+import com.lloms.productservice.repository.ProductChangeFeedRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Builds and keeps one binary catalog snapshot file per outlet, written from the change feed.
+ * An outlet's snapshot is built on first request, then rebuilt in the background whenever the
+ * change feed past its watermark is non-empty, which also catches writes made outside this service.
+ * A replaced file is deleted one generation later, so downloads still in progress can finish.
+ */
+@Component
+@Slf4j
+public class CatalogSnapshotStore {
+
+    private final ProductChangeFeedRepository changeFeedRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Duration horizon;
+    private final Path directory;
+
+    private final Map<Long, CatalogSnapshot> snapshots = new ConcurrentHashMap<>();
+    private final Map<Long, Path> retiredFiles = new ConcurrentHashMap<>();
+    private final Map<Long, Object> buildLocks = new ConcurrentHashMap<>();
+
+    public CatalogSnapshotStore(ProductChangeFeedRepository changeFeedRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.sync.horizon:10s}") Duration horizon,
+            @Value("${app.catalog-snapshot.directory:${java.io.tmpdir}}") Path baseDirectory) throws IOException {
+        this.changeFeedRepository = changeFeedRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.horizon = horizon;
+        this.directory = Files.createTempDirectory(Files.createDirectories(baseDirectory), "catalog-snapshots-");
+    }
+
+    /**
+     * Returns the current snapshot of the outlet, building it if there is none yet
+     */
+    public CatalogSnapshot get(Long outletId) throws IOException {
+        CatalogSnapshot snapshot = snapshots.get(outletId);
+        if (snapshot != null) {
+            return snapshot;
+        }
+        synchronized (buildLocks.computeIfAbsent(outletId, key -> new Object())) {
+            snapshot = snapshots.get(outletId);
+            return snapshot != null ? snapshot : rebuild(outletId);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.catalog-snapshot.refresh-interval:1m}")
+    public void refreshChanged() {
+        for (CatalogSnapshot snapshot : snapshots.values()) {
+            Long outletId = snapshot.outletId();
+            try {
+                if (!changeFeedRepository.hasChanges(snapshot.watermarkUpdatedAt(), snapshot.watermarkId(), outletId,
+                        horizon)) {
+                    continue;
+                }
+                synchronized (buildLocks.computeIfAbsent(outletId, key -> new Object())) {
+                    rebuild(outletId);
+                }
+            } catch (IOException | DataAccessException | UncheckedIOException ex) {
+                log.warn("Could not refresh catalog snapshot of outlet ID: {}: {}", outletId, ex.getMessage());
+            }
+        }
+    }
+
+    @PreDestroy
+    public void deleteFiles() throws IOException {
+        FileSystemUtils.deleteRecursively(directory);
+    }
+
+    private CatalogSnapshot rebuild(Long outletId) throws IOException {
+        long start = System.currentTimeMillis();
+        Path file = Files.createTempFile(directory, "outlet-" + outletId + "-", ".bin.gz");
+        CatalogSnapshot snapshot;
+        try {
+            snapshot = readOnlyTransaction.execute(status -> write(outletId, file));
+        } catch (RuntimeException ex) {
+            Files.deleteIfExists(file);
+            throw ex;
+        }
+
+        CatalogSnapshot previous = snapshots.put(outletId, snapshot);
+        if (previous != null) {
+            Path retired = retiredFiles.put(outletId, previous.file());
+            if (retired != null) {
+                Files.deleteIfExists(retired);
+            }
+        }
+
+        log.info("Built catalog snapshot of outlet ID: {} with {} products, {} bytes in {} ms", outletId,
+                snapshot.productCount(), snapshot.size(), System.currentTimeMillis() - start);
+        return snapshot;
+    }
+
+    private CatalogSnapshot write(Long outletId, Path file) {
+        try (OutputStream outputStream = Files.newOutputStream(file);
+             CatalogSnapshotWriter writer = new CatalogSnapshotWriter(outputStream, outletId);
+             Stream<ProductSyncRecord> changes = changeFeedRepository.streamChanges(null, 0L, outletId, horizon,
+                     Integer.MAX_VALUE)) {
+            Iterator<ProductSyncRecord> iterator = changes.iterator();
+            while (iterator.hasNext()) {
+                writer.write(iterator.next());
+            }
+            writer.finish();
+            return new CatalogSnapshot(outletId, file, Files.size(file), writer.productCount(), writer.checksum(),
+                    writer.watermarkUpdatedAt(), writer.watermarkId());
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
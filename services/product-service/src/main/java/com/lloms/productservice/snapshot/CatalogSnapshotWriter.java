@@ -0,0 +1,144 @@
+package com.lloms.productservice.snapshot;
+
+import com.lloms.productservice.dto.response.ProductSyncRecord;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes the binary catalog snapshot format, gzip compressed. All numbers are big-endian
+ * and strings are modified UTF-8 with a two byte length, as written by DataOutputStream.
+ * <pre>
+ * header   int magic "LCAT", short format version, long outlet ID
+ * record*  int payload length (&gt; 0), payload:
+ *            long id, long version, byte flags, UTF status, UTF name, decimal price,
+ *            int stock quantity, long category ID, then UTF sku, UTF barcode, UTF unit and
+ *            decimal tax rate, each only when its flag bit is set
+ * end      int 0
+ * trailer  int product count, UTF watermark updatedAt (ISO, empty if none), long watermark ID,
+ *          int CRC32 of every uncompressed byte before it
+ * </pre>
+ * Flags: 1 taxable, 2 sku, 4 barcode, 8 unit, 16 tax rate. A decimal is a byte scale and a long
+ * unscaled value. Readers skip unknown trailing record fields using the payload length.
+ */
+class CatalogSnapshotWriter implements Closeable {
+
+    static final int MAGIC = 0x4C434154;
+    static final short FORMAT_VERSION = 1;
+
+    private static final int TAXABLE = 1;
+    private static final int HAS_SKU = 2;
+    private static final int HAS_BARCODE = 4;
+    private static final int HAS_UNIT = 8;
+    private static final int HAS_TAX_RATE = 16;
+
+    private final CRC32 crc = new CRC32();
+    private final DataOutputStream out;
+    private final ByteArrayOutputStream recordBuffer = new ByteArrayOutputStream(256);
+    private final DataOutputStream record = new DataOutputStream(recordBuffer);
+
+    private int productCount;
+    private LocalDateTime watermarkUpdatedAt;
+    private long watermarkId;
+    private long checksum;
+
+    CatalogSnapshotWriter(OutputStream outputStream, Long outletId) throws IOException {
+        this.out = new DataOutputStream(new CheckedOutputStream(
+                new GZIPOutputStream(new BufferedOutputStream(outputStream, 1 << 16), 1 << 16), crc));
+        out.writeInt(MAGIC);
+        out.writeShort(FORMAT_VERSION);
+        out.writeLong(outletId);
+    }
+
+    /**
+     * Appends one change feed row; tombstones only move the watermark
+     */
+    void write(ProductSyncRecord row) throws IOException {
+        watermarkUpdatedAt = row.getUpdatedAt();
+        watermarkId = row.getId();
+        if (Boolean.TRUE.equals(row.getDeleted())) {
+            return;
+        }
+
+        recordBuffer.reset();
+        record.writeLong(row.getId());
+        record.writeLong(row.getVersion());
+        record.writeByte((Boolean.TRUE.equals(row.getIsTaxable()) ? TAXABLE : 0)
+                | (row.getSku() != null ? HAS_SKU : 0)
+                | (row.getBarcode() != null ? HAS_BARCODE : 0)
+                | (row.getUnit() != null ? HAS_UNIT : 0)
+                | (row.getTaxRate() != null ? HAS_TAX_RATE : 0));
+        record.writeUTF(row.getStatus().name());
+        record.writeUTF(row.getName());
+        writeDecimal(row.getPrice());
+        record.writeInt(row.getStockQuantity());
+        record.writeLong(row.getCategoryId());
+        if (row.getSku() != null) {
+            record.writeUTF(row.getSku());
+        }
+        if (row.getBarcode() != null) {
+            record.writeUTF(row.getBarcode());
+        }
+        if (row.getUnit() != null) {
+            record.writeUTF(row.getUnit());
+        }
+        if (row.getTaxRate() != null) {
+            writeDecimal(row.getTaxRate());
+        }
+
+        out.writeInt(recordBuffer.size());
+        recordBuffer.writeTo(out);
+        productCount++;
+    }
+
+    /**
+     * Writes the end marker and trailer and finishes the gzip stream
+     */
+    void finish() throws IOException {
+        out.writeInt(0);
+        out.writeInt(productCount);
+        out.writeUTF(watermarkUpdatedAt != null ? watermarkUpdatedAt.toString() : "");
+        out.writeLong(watermarkId);
+        checksum = crc.getValue();
+        out.writeInt((int) checksum);
+        out.close();
+    }
+
+    /**
+     * CRC32 of the uncompressed content before the trailer checksum, valid after finish
+     */
+    long checksum() {
+        return checksum;
+    }
+
+    int productCount() {
+        return productCount;
+    }
+
+    LocalDateTime watermarkUpdatedAt() {
+        return watermarkUpdatedAt;
+    }
+
+    long watermarkId() {
+        return watermarkId;
+    }
+
+    private void writeDecimal(BigDecimal value) throws IOException {
+        record.writeByte(value.scale());
+        record.writeLong(value.unscaledValue().longValueExact());
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+}
@@ -0,0 +1,96 @@
+-- Turn stock_movements into an append-only stock ledger
+-- Every row carries its signed delta, the table is range partitioned by month of created_at,
+-- and stock_snapshots holds compacted per-product balances so on-hand at any instant is
+-- the nearest snapshot plus the ledger tail in between
+
+-- Generic monthly partition helper, shared by the time partitioned tables
+CREATE OR REPLACE FUNCTION create_monthly_partitions(parent_table TEXT, from_month DATE, months_ahead INTEGER)
+RETURNS INTEGER AS $$
+DECLARE
+    month_start DATE;
+    partition_name TEXT;
+    created INTEGER := 0;
+BEGIN
+    FOR i IN 0..months_ahead LOOP
+        month_start := (date_trunc('month', from_month) + make_interval(months => i))::date;
+        partition_name := parent_table || '_' || to_char(month_start, 'YYYY_MM');
+        IF to_regclass(partition_name) IS NULL THEN
+            EXECUTE format('CREATE TABLE %I PARTITION OF %I FOR VALUES FROM (%L) TO (%L)',
+                    partition_name, parent_table, month_start, (month_start + INTERVAL '1 month')::date);
+            created := created + 1;
+        END IF;
+    END LOOP;
+    RETURN created;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION create_price_history_partitions(from_month DATE, months_ahead INTEGER)
+RETURNS INTEGER AS $$
+    SELECT create_monthly_partitions('price_history', from_month, months_ahead);
+$$ LANGUAGE sql;
+
+ALTER TABLE stock_movements RENAME TO stock_movements_unpartitioned;
+ALTER INDEX stock_movements_pkey RENAME TO stock_movements_unpartitioned_pkey;
+ALTER INDEX idx_stock_movement_product RENAME TO idx_stock_movement_unpartitioned_product;
+ALTER INDEX idx_stock_movement_date RENAME TO idx_stock_movement_unpartitioned_date;
+ALTER INDEX idx_stock_movement_type RENAME TO idx_stock_movement_unpartitioned_type;
+
+CREATE TABLE stock_movements (
+    id BIGINT NOT NULL DEFAULT nextval('stock_movements_id_seq'),
+    product_id BIGINT NOT NULL,
+    quantity INTEGER NOT NULL,
+    delta INTEGER NOT NULL,
+    movement_type VARCHAR(20) NOT NULL,
+    reason VARCHAR(500),
+    reference_id VARCHAR(100),
+    reference_type VARCHAR(50),
+    performed_by VARCHAR(100),
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+
+    CONSTRAINT stock_movements_pkey PRIMARY KEY (id, created_at),
+    CONSTRAINT fk_stock_movements_product FOREIGN KEY (product_id) REFERENCES products(id),
+    CONSTRAINT chk_stock_movements_type CHECK (movement_type IN ('INBOUND', 'OUTBOUND', 'ADJUSTMENT', 'TRANSFER_IN', 'TRANSFER_OUT', 'RETURN', 'DAMAGE', 'EXPIRED')),
+    CONSTRAINT chk_stock_movements_delta CHECK (ABS(delta) = quantity)
+) PARTITION BY RANGE (created_at);
+
+ALTER SEQUENCE stock_movements_id_seq OWNED BY stock_movements.id;
+
+-- Serves snapshot compaction and stock-as-of: ledger tail of one product between two instants
+CREATE INDEX idx_stock_movement_product_created ON stock_movements(product_id, created_at);
+CREATE INDEX idx_stock_movement_date ON stock_movements(created_at);
+
+CREATE TABLE stock_movements_default PARTITION OF stock_movements DEFAULT;
+
+DO $$
+DECLARE
+    first_month DATE := date_trunc('month',
+            COALESCE((SELECT MIN(created_at) FROM stock_movements_unpartitioned), CURRENT_TIMESTAMP))::date;
+BEGIN
+    PERFORM create_monthly_partitions('stock_movements', first_month,
+            ((EXTRACT(YEAR FROM CURRENT_DATE) - EXTRACT(YEAR FROM first_month)) * 12
+                    + EXTRACT(MONTH FROM CURRENT_DATE) - EXTRACT(MONTH FROM first_month))::INTEGER + 3);
+END $$;
+
+-- Legacy rows only carry an absolute quantity; the movement type gives the sign
+INSERT INTO stock_movements (id, product_id, quantity, delta, movement_type, reason, reference_id, reference_type,
+        performed_by, created_at)
+SELECT id, product_id, quantity,
+       CASE WHEN movement_type IN ('OUTBOUND', 'TRANSFER_OUT', 'DAMAGE', 'EXPIRED') THEN -quantity ELSE quantity END,
+       movement_type, reason, reference_id, reference_type, performed_by, created_at
+FROM stock_movements_unpartitioned;
+
+DROP TABLE stock_movements_unpartitioned;
+
+-- Compacted balance of a product as of taken_at, including every ledger row created up to then
+CREATE TABLE stock_snapshots (
+    product_id BIGINT NOT NULL,
+    taken_at TIMESTAMP NOT NULL,
+    quantity INTEGER NOT NULL,
+
+    CONSTRAINT pk_stock_snapshots PRIMARY KEY (product_id, taken_at),
+    CONSTRAINT fk_stock_snapshots_product FOREIGN KEY (product_id) REFERENCES products(id)
+);
+
+-- Seed the ledger with today's balances; earlier history was never fully recorded
+INSERT INTO stock_snapshots (product_id, taken_at, quantity)
+SELECT id, CURRENT_TIMESTAMP, stock_quantity FROM products;
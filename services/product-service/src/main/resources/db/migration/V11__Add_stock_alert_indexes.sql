@@ -0,0 +1,9 @@
+-- Partial indexes covering the low-stock and out-of-stock listings
+-- They only hold the few products currently alerting, ordered the way the listings page through them,
+-- and serve the database fallback used while the in-memory stock alert index is loading
+
+CREATE INDEX idx_product_low_stock ON products(stock_quantity, id)
+    WHERE deleted = FALSE AND min_stock_level IS NOT NULL AND stock_quantity <= min_stock_level;
+
+CREATE INDEX idx_product_out_of_stock ON products(stock_quantity, id)
+    WHERE deleted = FALSE AND stock_quantity <= 0;
@@ -0,0 +1,70 @@
+-- Category closure table: one row per (ancestor, descendant) pair, each category being its own ancestor at depth 0
+-- Maintained by triggers on categories, so every writer keeps it consistent and a whole subtree is one index range
+
+CREATE TABLE category_closure (
+    ancestor_id BIGINT NOT NULL,
+    descendant_id BIGINT NOT NULL,
+    depth INTEGER NOT NULL,
+
+    CONSTRAINT pk_category_closure PRIMARY KEY (ancestor_id, descendant_id),
+    CONSTRAINT fk_category_closure_ancestor FOREIGN KEY (ancestor_id) REFERENCES categories(id) ON DELETE CASCADE,
+    CONSTRAINT fk_category_closure_descendant FOREIGN KEY (descendant_id) REFERENCES categories(id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_category_closure_descendant ON category_closure(descendant_id);
+
+WITH RECURSIVE tree (ancestor_id, descendant_id, depth) AS (
+    SELECT id, id, 0 FROM categories
+    UNION ALL
+    SELECT t.ancestor_id, c.id, t.depth + 1
+    FROM tree t
+    JOIN categories c ON c.parent_id = t.descendant_id
+)
+INSERT INTO category_closure (ancestor_id, descendant_id, depth)
+SELECT ancestor_id, descendant_id, depth FROM tree;
+
+CREATE OR REPLACE FUNCTION category_closure_on_insert()
+RETURNS TRIGGER AS $$
+BEGIN
+    INSERT INTO category_closure (ancestor_id, descendant_id, depth)
+    SELECT ancestor_id, NEW.id, depth + 1 FROM category_closure WHERE descendant_id = NEW.parent_id
+    UNION ALL
+    SELECT NEW.id, NEW.id, 0;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Moving a category moves its whole subtree: links from the old ancestors are dropped,
+-- then every ancestor of the new parent is linked to every node of the subtree
+CREATE OR REPLACE FUNCTION category_closure_on_move()
+RETURNS TRIGGER AS $$
+BEGIN
+    IF NEW.parent_id IS NOT NULL AND EXISTS (
+            SELECT 1 FROM category_closure WHERE ancestor_id = NEW.id AND descendant_id = NEW.parent_id) THEN
+        RAISE EXCEPTION 'Category % cannot be moved under its own subcategory %', NEW.id, NEW.parent_id;
+    END IF;
+
+    DELETE FROM category_closure link
+    USING category_closure subtree
+    WHERE subtree.ancestor_id = NEW.id
+      AND link.descendant_id = subtree.descendant_id
+      AND link.ancestor_id NOT IN (SELECT descendant_id FROM category_closure WHERE ancestor_id = NEW.id);
+
+    INSERT INTO category_closure (ancestor_id, descendant_id, depth)
+    SELECT above.ancestor_id, subtree.descendant_id, above.depth + subtree.depth + 1
+    FROM category_closure above
+    CROSS JOIN category_closure subtree
+    WHERE above.descendant_id = NEW.parent_id AND subtree.ancestor_id = NEW.id;
+
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_category_closure_insert
+    AFTER INSERT ON categories
+    FOR EACH ROW EXECUTE FUNCTION category_closure_on_insert();
+
+CREATE TRIGGER trg_category_closure_move
+    AFTER UPDATE OF parent_id ON categories
+    FOR EACH ROW WHEN (OLD.parent_id IS DISTINCT FROM NEW.parent_id)
+    EXECUTE FUNCTION category_closure_on_move();
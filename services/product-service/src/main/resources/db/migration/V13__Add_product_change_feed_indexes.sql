@@ -0,0 +1,3 @@
+-- Change feed seeks on (updated_at, id) past a terminal's watermark; soft-deleted rows are kept as tombstones
+CREATE INDEX idx_product_updated_keyset ON products(updated_at, id);
+CREATE INDEX idx_product_outlet_updated_keyset ON products(outlet_id, updated_at, id);
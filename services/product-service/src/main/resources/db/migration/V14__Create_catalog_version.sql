@@ -0,0 +1,67 @@
+-- Single-row version of everything product listings are built from, read by conditional GETs
+-- instead of aggregating the products table. Bumped by triggers, so every writer keeps it current.
+
+CREATE TABLE catalog_version (
+    id SMALLINT PRIMARY KEY CHECK (id = 1),
+    version BIGINT NOT NULL,
+    modified_at TIMESTAMP NOT NULL
+);
+
+INSERT INTO catalog_version (id, version, modified_at) VALUES (1, 1, LOCALTIMESTAMP);
+
+-- Bumps at most once per transaction; the row lock is then held until commit, which is why
+-- stock bookkeeping never gets here (see catalog_version_bump_products)
+CREATE OR REPLACE FUNCTION catalog_version_mark()
+RETURNS VOID AS $$
+BEGIN
+    IF current_setting('lloms.catalog_version_bumped', true) IS DISTINCT FROM 'on' THEN
+        UPDATE catalog_version SET version = version + 1, modified_at = clock_timestamp()::timestamp WHERE id = 1;
+        PERFORM set_config('lloms.catalog_version_bumped', 'on', true);
+    END IF;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION catalog_version_bump()
+RETURNS TRIGGER AS $$
+BEGIN
+    PERFORM catalog_version_mark();
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Sales and receipts only move stock_quantity, the status derived from it and the row's
+-- bookkeeping columns; those updates leave the catalog version (and the listing ETag) alone.
+-- A status change without a stock change is an edit and still counts.
+CREATE OR REPLACE FUNCTION catalog_version_bump_products()
+RETURNS TRIGGER AS $$
+BEGIN
+    IF EXISTS (
+        SELECT 1
+        FROM changed_rows n
+        JOIN previous_rows o ON o.id = n.id
+        WHERE to_jsonb(n) - ARRAY['stock_quantity', 'status', 'version', 'updated_at', 'updated_by']
+                IS DISTINCT FROM to_jsonb(o) - ARRAY['stock_quantity', 'status', 'version', 'updated_at', 'updated_by']
+           OR (n.status IS DISTINCT FROM o.status AND n.stock_quantity = o.stock_quantity)
+    ) THEN
+        PERFORM catalog_version_mark();
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_catalog_version_products_update
+    AFTER UPDATE ON products
+    REFERENCING OLD TABLE AS previous_rows NEW TABLE AS changed_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION catalog_version_bump_products();
+
+CREATE TRIGGER trg_catalog_version_products
+    AFTER INSERT OR DELETE ON products
+    FOR EACH STATEMENT EXECUTE FUNCTION catalog_version_bump();
+
+CREATE TRIGGER trg_catalog_version_categories
+    AFTER INSERT OR UPDATE OR DELETE ON categories
+    FOR EACH STATEMENT EXECUTE FUNCTION catalog_version_bump();
+
+CREATE TRIGGER trg_catalog_version_outlets
+    AFTER INSERT OR UPDATE OR DELETE ON outlets
+    FOR EACH STATEMENT EXECUTE FUNCTION catalog_version_bump();
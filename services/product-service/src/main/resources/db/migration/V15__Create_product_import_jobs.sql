@@ -0,0 +1,20 @@
+-- Status of bulk product imports, so a poll can be answered by any replica, not only the one running the job.
+-- errors holds the reported (capped) rejected rows as a JSON array.
+CREATE TABLE product_import_jobs (
+    job_id VARCHAR(36) PRIMARY KEY,
+    status VARCHAR(20) NOT NULL,
+    processed_rows BIGINT NOT NULL DEFAULT 0,
+    imported_rows BIGINT NOT NULL DEFAULT 0,
+    rejected_rows BIGINT NOT NULL DEFAULT 0,
+    errors JSONB NOT NULL DEFAULT '[]',
+    message TEXT,
+    created_by VARCHAR(100),
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    started_at TIMESTAMP,
+    finished_at TIMESTAMP,
+
+    CONSTRAINT chk_product_import_jobs_status CHECK (status IN ('QUEUED', 'RUNNING', 'COMPLETED', 'FAILED'))
+);
+
+-- Serves the purge of finished jobs past their retention
+CREATE INDEX idx_product_import_jobs_finished ON product_import_jobs(finished_at) WHERE finished_at IS NOT NULL;
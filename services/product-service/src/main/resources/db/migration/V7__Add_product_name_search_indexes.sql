@@ -0,0 +1,8 @@
+-- Trigram support for substring and typo tolerant product name search
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- Serves LOWER(name) LIKE '%term%' and word similarity (<%) lookups
+CREATE INDEX idx_product_name_trgm ON products USING GIN (LOWER(name) gin_trgm_ops) WHERE deleted = FALSE;
+
+-- Serves LOWER(name) LIKE 'term%' for terms too short to produce trigrams
+CREATE INDEX idx_product_name_prefix ON products (LOWER(name) text_pattern_ops) WHERE deleted = FALSE;
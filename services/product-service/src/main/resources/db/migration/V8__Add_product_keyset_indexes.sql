@@ -0,0 +1,3 @@
+-- Keyset scrolling seeks on (filter, id); lets outlet and category syncs walk the catalog in index order
+CREATE INDEX idx_product_outlet_keyset ON products(outlet_id, id) WHERE deleted = FALSE;
+CREATE INDEX idx_product_category_keyset ON products(category_id, id) WHERE deleted = FALSE;
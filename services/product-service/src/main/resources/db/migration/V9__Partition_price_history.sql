@@ -0,0 +1,70 @@
+-- Range partition price_history by month of effective_date
+-- As-of lookups read (product_id, effective_date) from the newest partitions first,
+-- and old months can be detached or archived without touching live data
+
+ALTER TABLE price_history RENAME TO price_history_unpartitioned;
+ALTER INDEX price_history_pkey RENAME TO price_history_unpartitioned_pkey;
+ALTER INDEX idx_price_history_product RENAME TO idx_price_history_unpartitioned_product;
+ALTER INDEX idx_price_history_date RENAME TO idx_price_history_unpartitioned_date;
+
+CREATE TABLE price_history (
+    id BIGINT NOT NULL DEFAULT nextval('price_history_id_seq'),
+    product_id BIGINT NOT NULL,
+    previous_price DECIMAL(12,2) NOT NULL,
+    new_price DECIMAL(12,2) NOT NULL,
+    effective_date TIMESTAMP NOT NULL,
+    reason VARCHAR(500),
+    changed_by VARCHAR(100),
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+
+    CONSTRAINT price_history_pkey PRIMARY KEY (id, effective_date),
+    CONSTRAINT fk_price_history_product FOREIGN KEY (product_id) REFERENCES products(id),
+    CONSTRAINT chk_price_history_previous_price CHECK (previous_price >= 0),
+    CONSTRAINT chk_price_history_new_price CHECK (new_price > 0)
+) PARTITION BY RANGE (effective_date);
+
+ALTER SEQUENCE price_history_id_seq OWNED BY price_history.id;
+
+-- Serves the as-of lookup: latest change at or before a point in time for one product
+CREATE INDEX idx_price_history_product_effective ON price_history(product_id, effective_date, id);
+
+-- Catches rows outside the pre-created months so inserts never fail
+CREATE TABLE price_history_default PARTITION OF price_history DEFAULT;
+
+-- Creates the monthly partitions from from_month up to months_ahead months later
+CREATE OR REPLACE FUNCTION create_price_history_partitions(from_month DATE, months_ahead INTEGER)
+RETURNS INTEGER AS $$
+DECLARE
+    month_start DATE;
+    partition_name TEXT;
+    created INTEGER := 0;
+BEGIN
+    FOR i IN 0..months_ahead LOOP
+        month_start := (date_trunc('month', from_month) + make_interval(months => i))::date;
+        partition_name := 'price_history_' || to_char(month_start, 'YYYY_MM');
+        IF to_regclass(partition_name) IS NULL THEN
+            EXECUTE format('CREATE TABLE %I PARTITION OF price_history FOR VALUES FROM (%L) TO (%L)',
+                    partition_name, month_start, (month_start + INTERVAL '1 month')::date);
+            created := created + 1;
+        END IF;
+    END LOOP;
+    RETURN created;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Partitions covering the existing history plus three months ahead
+DO $$
+DECLARE
+    first_month DATE := date_trunc('month',
+            COALESCE((SELECT MIN(effective_date) FROM price_history_unpartitioned), CURRENT_TIMESTAMP))::date;
+BEGIN
+    PERFORM create_price_history_partitions(first_month,
+            ((EXTRACT(YEAR FROM CURRENT_DATE) - EXTRACT(YEAR FROM first_month)) * 12
+                    + EXTRACT(MONTH FROM CURRENT_DATE) - EXTRACT(MONTH FROM first_month))::INTEGER + 3);
+END $$;
+
+INSERT INTO price_history (id, product_id, previous_price, new_price, effective_date, reason, changed_by, created_at)
+SELECT id, product_id, previous_price, new_price, effective_date, reason, changed_by, created_at
+FROM price_history_unpartitioned;
+
+DROP TABLE price_history_unpartitioned;
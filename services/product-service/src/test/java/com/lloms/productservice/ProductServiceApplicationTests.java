@@ -2,8 +2,15 @@ package com.lloms.productservice;
 
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
 
-@SpringBootTest
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:testdb",
+		"spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+		"spring.cloud.compatibility-verifier.enabled=false",
+		"app.cache.near.listener.enabled=false"
+})
+@ActiveProfiles("test")
 class ProductServiceApplicationTests {
 
 	@Test
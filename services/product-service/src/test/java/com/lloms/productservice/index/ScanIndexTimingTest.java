@@ -0,0 +1,96 @@
+package com.lloms.productservice.index;
+
+import com.lloms.productservice.entity.Category;
+import com.lloms.productservice.entity.Outlet;
+import com.lloms.productservice.entity.Product;
+import com.lloms.productservice.repository.ProductRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Rough timing of a POS scan served by the ScanIndex against the database lookup it falls back to
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@ActiveProfiles("test")
+class ScanIndexTimingTest {
+
+    private static final int PRODUCTS = 200;
+    private static final int ROUNDS = 5;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Test
+    void indexLookupIsFasterThanDatabaseLookup() {
+        Category category = entityManager.persist(Category.builder().name("Category").build());
+        Outlet outlet = entityManager.persist(Outlet.builder().name("Outlet").code("OUT-1").build());
+        List<ProductSnapshot> snapshots = new ArrayList<>();
+        List<String> codes = new ArrayList<>();
+        for (int i = 0; i < PRODUCTS; i++) {
+            Product product = entityManager.persist(Product.builder()
+                    .name("Product " + i)
+                    .sku("SKU-" + i)
+                    .barcode("BC-" + i)
+                    .price(new BigDecimal("10.00"))
+                    .costPrice(new BigDecimal("6.00"))
+                    .stockQuantity(10)
+                    .minStockLevel(1)
+                    .category(category)
+                    .outlet(outlet)
+                    .build());
+            snapshots.add(ProductSnapshot.builder()
+                    .id(product.getId())
+                    .sku(product.getSku())
+                    .barcode(product.getBarcode())
+                    .build());
+            codes.add(product.getBarcode());
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        ScanIndex scanIndex = new ScanIndex(new SimpleMeterRegistry());
+        scanIndex.rebuild(snapshots);
+
+        // Warm up both paths before timing
+        for (String code : codes) {
+            assertThat(scanIndex.find(code)).isNotNull();
+            assertThat(productRepository.findForScan(code)).hasSize(1);
+        }
+        entityManager.clear();
+
+        long indexNanos = 0;
+        long databaseNanos = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            for (String code : codes) {
+                scanIndex.find(code);
+            }
+            indexNanos += System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (String code : codes) {
+                productRepository.findForScan(code);
+            }
+            databaseNanos += System.nanoTime() - start;
+            entityManager.clear();
+        }
+
+        int lookups = PRODUCTS * ROUNDS;
+        System.out.printf("Scan lookup: index %d ns, database %d ns (mean of %d)%n",
+                indexNanos / lookups, databaseNanos / lookups, lookups);
+        assertThat(indexNanos).isLessThan(databaseNanos);
+    }
+}
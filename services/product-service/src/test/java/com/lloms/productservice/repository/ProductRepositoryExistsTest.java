@@ -0,0 +1,51 @@
+package com.lloms.productservice.repository;
+
+import com.lloms.productservice.entity.Category;
+import com.lloms.productservice.entity.Outlet;
+import com.lloms.productservice.entity.Product;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Point-in-time stock queries must still find products deleted since then
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@ActiveProfiles("test")
+class ProductRepositoryExistsTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Test
+    void existsIncludingDeletedByIdSeesDeletedProducts() {
+        // Soft-deleted the way ProductService deletes
+        Product product = entityManager.persist(Product.builder()
+                .name("Discontinued")
+                .sku("SKU-DISCONTINUED")
+                .price(new BigDecimal("12.50"))
+                .costPrice(new BigDecimal("7.00"))
+                .stockQuantity(0)
+                .minStockLevel(0)
+                .category(entityManager.persist(Category.builder().name("Category").build()))
+                .outlet(entityManager.persist(Outlet.builder().name("Outlet").code("OUT-1").build()))
+                .build());
+        product.setDeleted(true);
+        entityManager.flush();
+        Long productId = product.getId();
+        entityManager.clear();
+
+        assertThat(productRepository.existsById(productId)).isFalse();
+        assertThat(productRepository.existsIncludingDeletedById(productId)).isTrue();
+        assertThat(productRepository.existsIncludingDeletedById(productId + 1)).isFalse();
+    }
+}
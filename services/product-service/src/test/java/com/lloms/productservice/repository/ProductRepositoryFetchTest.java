@@ -0,0 +1,143 @@
+package com.lloms.productservice.repository;
+
+import com.lloms.productservice.entity.Category;
+import com.lloms.productservice.entity.Outlet;
+import com.lloms.productservice.entity.Product;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Guards the list queries against N+1 lazy loading of category and outlet.
+ * Batch fetching is switched off so only the entity graphs keep the statement count down.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.default_batch_fetch_size=1"
+})
+@ActiveProfiles("test")
+class ProductRepositoryFetchTest {
+
+    private static final int PRODUCT_COUNT = 60;
+    private static final int CATEGORY_COUNT = 12;
+    private static final int OUTLET_COUNT = 12;
+    private static final Pageable FIRST_PAGE = PageRequest.of(0, 50);
+
+    /**
+     * One select for the page plus one count query
+     */
+    private static final long MAX_PAGE_STATEMENTS = 2;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private Statistics statistics;
+    private Long categoryId;
+    private Long outletId;
+
+    @BeforeEach
+    void setUp() {
+        List<Category> categories = new ArrayList<>();
+        for (int i = 0; i < CATEGORY_COUNT; i++) {
+            categories.add(entityManager.persist(Category.builder().name("Category " + i).build()));
+        }
+        List<Outlet> outlets = new ArrayList<>();
+        for (int i = 0; i < OUTLET_COUNT; i++) {
+            outlets.add(entityManager.persist(Outlet.builder().name("Outlet " + i).code("OUT-" + i).build()));
+        }
+        for (int i = 0; i < PRODUCT_COUNT; i++) {
+            entityManager.persist(Product.builder()
+                    .name("Product " + i)
+                    .sku("SKU-" + i)
+                    .price(BigDecimal.valueOf(10 + i))
+                    .costPrice(BigDecimal.valueOf(5 + i))
+                    .stockQuantity(i % 10)
+                    .minStockLevel(5)
+                    .category(categories.get(i % CATEGORY_COUNT))
+                    .outlet(outlets.get(i % OUTLET_COUNT))
+                    .build());
+        }
+        categoryId = categories.get(0).getId();
+        outletId = outlets.get(0).getId();
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void findAllFetchesAssociations() {
+        assertLoadedWithin(MAX_PAGE_STATEMENTS, () -> productRepository.findAll(FIRST_PAGE).getContent());
+    }
+
+    @Test
+    void findByCategoryFetchesAssociations() {
+        assertLoadedWithin(MAX_PAGE_STATEMENTS,
+                () -> productRepository.findByCategoryIdAndDeletedFalse(categoryId, FIRST_PAGE).getContent());
+    }
+
+    @Test
+    void findByOutletFetchesAssociations() {
+        assertLoadedWithin(MAX_PAGE_STATEMENTS,
+                () -> productRepository.findByOutletIdAndDeletedFalse(outletId, FIRST_PAGE).getContent());
+    }
+
+    @Test
+    void findByPriceRangeFetchesAssociations() {
+        assertLoadedWithin(MAX_PAGE_STATEMENTS, () -> productRepository
+                .findByPriceRange(BigDecimal.ZERO, BigDecimal.valueOf(1000), FIRST_PAGE).getContent());
+    }
+
+    @Test
+    void findByCriteriaFetchesAssociations() {
+        assertLoadedWithin(MAX_PAGE_STATEMENTS, () -> productRepository
+                .findByCriteria(null, null, null, "product", FIRST_PAGE).getContent());
+    }
+
+    @Test
+    void findLowStockProductsFetchesAssociations() {
+        assertLoadedWithin(MAX_PAGE_STATEMENTS, () -> productRepository
+                .findLowStockProducts(null, FIRST_PAGE).getContent());
+    }
+
+    @Test
+    void findForInventoryReportFetchesAssociations() {
+        assertLoadedWithin(1, () -> productRepository.findForInventoryReport(null));
+    }
+
+    private void assertLoadedWithin(long maxStatements, Supplier<List<Product>> load) {
+        List<Product> products = load.get();
+        products.forEach(product -> {
+            product.getCategory().getName();
+            product.getOutlet().getName();
+        });
+
+        assertThat(products).isNotEmpty();
+        assertThat(statistics.getPrepareStatementCount())
+                .as("statements to load and map %d products", products.size())
+                .isLessThanOrEqualTo(maxStatements);
+    }
+}
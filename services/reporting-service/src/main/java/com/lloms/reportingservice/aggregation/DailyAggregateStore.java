@@ -0,0 +1,98 @@
+package com.lloms.reportingservice.aggregation;
+
+import com.lloms.reportingservice.entity.DailySalesAggregate;
+import com.lloms.reportingservice.repository.DailySalesAggregateRepository;
+import com.lloms.reportingservice.repository.SalesFactRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the daily aggregates of each outlet. A day is summed from the sales once after it
+ * has ended and reused from then on; days still open, or never summed, are summed on demand.
+ * Callers provide the transaction.
+ */
+@Component
+public class DailyAggregateStore {
+
+    /**
+     * Top sellers tracked per sketch; far more than the one a report shows, so the
+     * leader of a long period survives the merge even if it never led a single day
+     */
+    static final int SKETCH_CAPACITY = 64;
+
+    private static final Logger log = LoggerFactory.getLogger(DailyAggregateStore.class);
+    private final DailySalesAggregateRepository dailySalesAggregateRepository;
+    private final SalesFactRepository salesFactRepository;
+
+    public DailyAggregateStore(DailySalesAggregateRepository dailySalesAggregateRepository,
+                               SalesFactRepository salesFactRepository) {
+        this.dailySalesAggregateRepository = dailySalesAggregateRepository;
+        this.salesFactRepository = salesFactRepository;
+    }
+
+    /**
+     * Sums the day from the sales, replacing any stored aggregate
+     */
+    public DailySalesAggregate refresh(Long outletId, LocalDate day) {
+        DailySalesAggregate aggregate = dailySalesAggregateRepository.findByOutletIdAndSalesDate(outletId, day)
+                .orElseGet(DailySalesAggregate::new);
+        return compute(aggregate, outletId, day);
+    }
+
+    /**
+     * @return the aggregates of the days in [from, to) up to today, summing the ones that are missing or stale
+     */
+    public List<DailySalesAggregate> load(Long outletId, LocalDate from, LocalDate to) {
+        LocalDate last = to.minusDays(1);
+        LocalDate today = LocalDate.now();
+        if (last.isAfter(today)) {
+            last = today;
+        }
+        if (last.isBefore(from)) {
+            return List.of();
+        }
+
+        Map<LocalDate, DailySalesAggregate> stored = dailySalesAggregateRepository
+                .findByOutletIdAndSalesDateBetween(outletId, from, last).stream()
+                .collect(Collectors.toMap(DailySalesAggregate::getSalesDate, Function.identity()));
+        List<DailySalesAggregate> days = new ArrayList<>();
+        int computed = 0;
+        for (LocalDate day = from; !day.isAfter(last); day = day.plusDays(1)) {
+            DailySalesAggregate aggregate = stored.get(day);
+            if (aggregate == null || aggregate.getComputedAt().isBefore(day.plusDays(1).atStartOfDay())) {
+                aggregate = compute(aggregate != null ? aggregate : new DailySalesAggregate(), outletId, day);
+                computed++;
+            }
+            days.add(aggregate);
+        }
+        log.debug("Loaded {} daily aggregates for outlet: {} from {}, {} summed from sales", days.size(), outletId,
+                from, computed);
+        return days;
+    }
+
+    private DailySalesAggregate compute(DailySalesAggregate aggregate, Long outletId, LocalDate day) {
+        LocalDateTime computedAt = LocalDateTime.now();
+        SalesAccumulator accumulator = new SalesAccumulator();
+        salesFactRepository.aggregate(outletId, day.atStartOfDay(), day.plusDays(1).atStartOfDay(), accumulator);
+        SalesSummary summary = accumulator.summarize();
+
+        aggregate.setOutletId(outletId);
+        aggregate.setSalesDate(day);
+        aggregate.setSalesCents(summary.salesCents());
+        aggregate.setOrders(summary.orders());
+        aggregate.setItemsSold(summary.itemsSold());
+        aggregate.setProductSketch(accumulator.productSketch(SKETCH_CAPACITY).toBytes());
+        aggregate.setCategorySketch(accumulator.categorySketch(SKETCH_CAPACITY).toBytes());
+        aggregate.setComputedAt(computedAt);
+        return dailySalesAggregateRepository.save(aggregate);
+    }
+}
@@ -0,0 +1,115 @@
+package com.lloms.reportingservice.aggregation;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Space-Saving over a stream of weighted updates, for top sellers that change with every sale.
+ * A fixed number of counters sits in a min-heap by count; a key that is not tracked takes
+ * over the smallest counter and inherits its count as error. Updates cost O(log capacity)
+ * and memory stays fixed however many distinct keys pass through.
+ * Not thread safe.
+ */
+public final class HeavyHitters {
+
+    private final Map<String, Integer> slots = new HashMap<>();
+    private final String[] keys;
+    private final String[] labels;
+    private final long[] counts;
+    private final long[] errors;
+    // heap holds slots ordered by count, position maps a slot back to its heap index
+    private final int[] heap;
+    private final int[] position;
+    private int size;
+
+    public HeavyHitters(int capacity) {
+        keys = new String[capacity];
+        labels = new String[capacity];
+        counts = new long[capacity];
+        errors = new long[capacity];
+        heap = new int[capacity];
+        position = new int[capacity];
+    }
+
+    public void offer(String key, String label, long weight) {
+        Integer slot = slots.get(key);
+        if (slot != null) {
+            counts[slot] += weight;
+            siftDown(position[slot]);
+            return;
+        }
+
+        int s;
+        if (size < keys.length) {
+            s = size;
+            heap[size] = s;
+            position[s] = size;
+            size++;
+            counts[s] = 0;
+            errors[s] = 0;
+        } else {
+            s = heap[0];
+            slots.remove(keys[s]);
+            errors[s] = counts[s];
+        }
+        keys[s] = key;
+        labels[s] = label;
+        counts[s] += weight;
+        slots.put(key, s);
+        siftDown(position[s]);
+        siftUp(position[s]);
+    }
+
+    /**
+     * @return up to limit tracked keys, highest count first; each count overestimates by at most its error
+     */
+    public List<TopKSketch.Counter> top(int limit) {
+        List<TopKSketch.Counter> top = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            top.add(new TopKSketch.Counter(keys[i], labels[i], counts[i], errors[i]));
+        }
+        top.sort(Comparator.comparingLong(TopKSketch.Counter::count).reversed());
+        return top.size() > limit ? List.copyOf(top.subList(0, limit)) : top;
+    }
+
+    private void siftUp(int i) {
+        while (i > 0) {
+            int parent = (i - 1) / 2;
+            if (counts[heap[parent]] <= counts[heap[i]]) {
+                return;
+            }
+            swap(i, parent);
+            i = parent;
+        }
+    }
+
+    private void siftDown(int i) {
+        while (true) {
+            int smallest = i;
+            int left = 2 * i + 1;
+            int right = left + 1;
+            if (left < size && counts[heap[left]] < counts[heap[smallest]]) {
+                smallest = left;
+            }
+            if (right < size && counts[heap[right]] < counts[heap[smallest]]) {
+                smallest = right;
+            }
+            if (smallest == i) {
+                return;
+            }
+            swap(i, smallest);
+            i = smallest;
+        }
+    }
+
+    private void swap(int i, int j) {
+        int slot = heap[i];
+        heap[i] = heap[j];
+        heap[j] = slot;
+        position[heap[i]] = i;
+        position[heap[j]] = j;
+    }
+}
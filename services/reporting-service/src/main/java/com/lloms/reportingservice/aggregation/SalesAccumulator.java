@@ -0,0 +1,109 @@
+package com.lloms.reportingservice.aggregation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Folds a stream of sales and sale lines into report totals in one pass.
+ * Money is summed in cents and counts in longs, so no row allocates a number object;
+ * per product and per category tallies live in parallel primitive arrays indexed
+ * through a dictionary, which bounds memory by the distinct products sold, not by sales.
+ * Not thread safe, one accumulator serves one report.
+ */
+public final class SalesAccumulator {
+
+    private long salesCents;
+    private long orders;
+    private long itemsSold;
+    private final Tally products = new Tally();
+    private final Tally categories = new Tally();
+
+    public void addSale(long totalCents) {
+        salesCents += totalCents;
+        orders++;
+    }
+
+    public void addLine(String productId, String productName, String category, long quantity, long revenueCents) {
+        itemsSold += quantity;
+        products.add(productId, productName != null ? productName : productId, quantity, revenueCents);
+        if (category != null) {
+            categories.add(category, category, quantity, revenueCents);
+        }
+    }
+
+    public SalesSummary summarize() {
+        return new SalesSummary(salesCents, orders, itemsSold, products.topLabel(), categories.topLabel());
+    }
+
+    /**
+     * @return the best selling products by quantity, keyed by product ID
+     */
+    public TopKSketch productSketch(int capacity) {
+        return products.toSketch(capacity);
+    }
+
+    /**
+     * @return the best selling categories by quantity
+     */
+    public TopKSketch categorySketch(int capacity) {
+        return categories.toSketch(capacity);
+    }
+
+    /**
+     * Quantity and revenue per key, ranked by quantity with revenue breaking ties
+     */
+    private static final class Tally {
+
+        private static final int INITIAL_CAPACITY = 256;
+
+        private final Map<String, Integer> index = new HashMap<>();
+        private String[] keys = new String[INITIAL_CAPACITY];
+        private String[] labels = new String[INITIAL_CAPACITY];
+        private long[] quantities = new long[INITIAL_CAPACITY];
+        private long[] revenues = new long[INITIAL_CAPACITY];
+        private int size;
+
+        void add(String key, String label, long quantity, long revenueCents) {
+            Integer slot = index.get(key);
+            int i;
+            if (slot == null) {
+                i = size++;
+                if (i == labels.length) {
+                    keys = Arrays.copyOf(keys, i * 2);
+                    labels = Arrays.copyOf(labels, i * 2);
+                    quantities = Arrays.copyOf(quantities, i * 2);
+                    revenues = Arrays.copyOf(revenues, i * 2);
+                }
+                keys[i] = key;
+                labels[i] = label;
+                index.put(key, i);
+            } else {
+                i = slot;
+            }
+            quantities[i] += quantity;
+            revenues[i] += revenueCents;
+        }
+
+        String topLabel() {
+            int top = -1;
+            for (int i = 0; i < size; i++) {
+                if (top < 0 || quantities[i] > quantities[top]
+                        || quantities[i] == quantities[top] && revenues[i] > revenues[top]) {
+                    top = i;
+                }
+            }
+            return top < 0 ? null : labels[top];
+        }
+
+        TopKSketch toSketch(int capacity) {
+            List<TopKSketch.Counter> counts = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                counts.add(new TopKSketch.Counter(keys[i], labels[i], quantities[i], 0));
+            }
+            return TopKSketch.exact(capacity, counts);
+        }
+    }
+}
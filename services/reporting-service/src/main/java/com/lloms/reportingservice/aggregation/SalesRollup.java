@@ -0,0 +1,29 @@
+package com.lloms.reportingservice.aggregation;
+
+import com.lloms.reportingservice.entity.DailySalesAggregate;
+
+/**
+ * Merges daily aggregates into the totals of a longer period. Counts and sums add up
+ * exactly; top sellers come from the merged sketches, exact for clear leaders and
+ * otherwise within the error the sketches carry.
+ */
+public final class SalesRollup {
+
+    private long salesCents;
+    private long orders;
+    private long itemsSold;
+    private final TopKSketch products = TopKSketch.empty(DailyAggregateStore.SKETCH_CAPACITY);
+    private final TopKSketch categories = TopKSketch.empty(DailyAggregateStore.SKETCH_CAPACITY);
+
+    public void add(DailySalesAggregate day) {
+        salesCents += day.getSalesCents();
+        orders += day.getOrders();
+        itemsSold += day.getItemsSold();
+        products.merge(TopKSketch.fromBytes(day.getProductSketch()));
+        categories.merge(TopKSketch.fromBytes(day.getCategorySketch()));
+    }
+
+    public SalesSummary summarize() {
+        return new SalesSummary(salesCents, orders, itemsSold, products.topLabel(), categories.topLabel());
+    }
+}
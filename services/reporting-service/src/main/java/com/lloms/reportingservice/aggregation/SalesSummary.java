@@ -0,0 +1,22 @@
+package com.lloms.reportingservice.aggregation;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Totals for one outlet and period; money in cents.
+ * Top product and category are null when nothing was sold.
+ */
+public record SalesSummary(long salesCents, long orders, long itemsSold, String topProduct, String topCategory) {
+
+    public BigDecimal totalSales() {
+        return BigDecimal.valueOf(salesCents, 2);
+    }
+
+    public BigDecimal averageOrderValue() {
+        if (orders == 0) {
+            return BigDecimal.ZERO.setScale(2);
+        }
+        return BigDecimal.valueOf(salesCents, 2).divide(BigDecimal.valueOf(orders), 2, RoundingMode.HALF_UP);
+    }
+}
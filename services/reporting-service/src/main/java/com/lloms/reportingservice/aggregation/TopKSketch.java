@@ -0,0 +1,130 @@
+package com.lloms.reportingservice.aggregation;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Space-Saving summary of the most sold keys, bounded to a fixed number of counters.
+ * Counts are overestimates by at most their error; a key that is not tracked sold
+ * no more than the smallest tracked count. Sketches of disjoint periods merge into
+ * a sketch of the combined period, which is what lets longer reports be built from
+ * stored daily sketches instead of from the sales.
+ */
+public final class TopKSketch {
+
+    private static final Comparator<Counter> BY_COUNT = Comparator.comparingLong(Counter::count).reversed();
+
+    private final int capacity;
+    private final List<Counter> counters;
+
+    private TopKSketch(int capacity, List<Counter> counters) {
+        this.capacity = capacity;
+        this.counters = counters;
+    }
+
+    public static TopKSketch empty(int capacity) {
+        return new TopKSketch(capacity, new ArrayList<>());
+    }
+
+    /**
+     * Builds a sketch from exact counts: the highest counts are kept with no error
+     */
+    static TopKSketch exact(int capacity, List<Counter> counts) {
+        List<Counter> counters = new ArrayList<>(counts);
+        counters.sort(BY_COUNT);
+        return new TopKSketch(capacity, new ArrayList<>(counters.subList(0, Math.min(capacity, counters.size()))));
+    }
+
+    /**
+     * Merges another sketch in. A key missing from a full sketch is charged that sketch's
+     * smallest count as both count and error, which keeps every count an upper bound.
+     */
+    public void merge(TopKSketch other) {
+        long thisFloor = floor();
+        long otherFloor = other.floor();
+        Map<String, Counter> merged = new HashMap<>();
+        for (Counter counter : counters) {
+            merged.put(counter.key(), counter.plus(otherFloor, otherFloor));
+        }
+        for (Counter counter : other.counters) {
+            Counter mine = merged.get(counter.key());
+            merged.put(counter.key(), mine == null
+                    ? counter.plus(thisFloor, thisFloor)
+                    : mine.plus(counter.count() - otherFloor, counter.error() - otherFloor));
+        }
+        counters.clear();
+        counters.addAll(merged.values());
+        counters.sort(BY_COUNT);
+        if (counters.size() > capacity) {
+            counters.subList(capacity, counters.size()).clear();
+        }
+    }
+
+    /**
+     * @return the label of the most sold key, or null when nothing was sold
+     */
+    public String topLabel() {
+        return counters.isEmpty() ? null : counters.get(0).label();
+    }
+
+    public List<Counter> counters() {
+        return List.copyOf(counters);
+    }
+
+    /**
+     * Upper bound on the count of any key the sketch does not track
+     */
+    private long floor() {
+        return counters.size() < capacity ? 0 : counters.get(counters.size() - 1).count();
+    }
+
+    public byte[] toBytes() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(16 + counters.size() * 48);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeShort(capacity);
+            out.writeShort(counters.size());
+            for (Counter counter : counters) {
+                out.writeUTF(counter.key());
+                out.writeUTF(counter.label());
+                out.writeLong(counter.count());
+                out.writeLong(counter.error());
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return bytes.toByteArray();
+    }
+
+    public static TopKSketch fromBytes(byte[] data) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+            int capacity = in.readUnsignedShort();
+            int size = in.readUnsignedShort();
+            List<Counter> counters = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                counters.add(new Counter(in.readUTF(), in.readUTF(), in.readLong(), in.readLong()));
+            }
+            return new TopKSketch(capacity, counters);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * A tracked key; count overestimates the true count by at most error
+     */
+    public record Counter(String key, String label, long count, long error) {
+
+        Counter plus(long count, long error) {
+            return new Counter(key, label, this.count + count, this.error + error);
+        }
+    }
+}
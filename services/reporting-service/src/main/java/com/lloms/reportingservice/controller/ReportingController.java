@@ -1,5 +1,6 @@
 package com.lloms.reportingservice.controller;
 
+import com.lloms.reportingservice.dto.TopSeller;
 import com.lloms.reportingservice.entity.ProductAnalytics;
 import com.lloms.reportingservice.entity.SalesReport;
 import com.lloms.reportingservice.service.ReportingService;
@@ -8,8 +9,10 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -20,6 +23,7 @@ import java.util.List;
 public class ReportingController {
     
     private static final Logger log = LoggerFactory.getLogger(ReportingController.class);
+    private static final int MAX_LIMIT = 50;
     private final ReportingService reportingService;
     
     public ReportingController(ReportingService reportingService) {
@@ -93,7 +97,8 @@ public class ReportingController {
             @RequestParam SalesReport.ReportType reportType,
             @RequestParam(defaultValue = "10") int limit) {
         log.info("Getting top {} performing outlets for report type: {}", limit, reportType);
-        List<SalesReport> reports = reportingService.getTopPerformingOutlets(reportType, limit);
+        List<SalesReport> reports = reportingService.getTopPerformingOutlets(reportType,
+                clampLimit(limit));
         return ResponseEntity.ok(reports);
     }
     
@@ -125,7 +130,8 @@ public class ReportingController {
             @PathVariable Long outletId,
             @RequestParam(defaultValue = "10") int limit) {
         log.info("Getting top {} selling products for outlet: {}", limit, outletId);
-        List<ProductAnalytics> analytics = reportingService.getTopSellingProducts(outletId, limit);
+        List<ProductAnalytics> analytics = reportingService.getTopSellingProducts(outletId,
+                clampLimit(limit));
         return ResponseEntity.ok(analytics);
     }
     
@@ -135,10 +141,33 @@ public class ReportingController {
             @PathVariable String category,
             @RequestParam(defaultValue = "10") int limit) {
         log.info("Getting top {} products for category: {}", limit, category);
-        List<ProductAnalytics> analytics = reportingService.getTopProductsByCategory(category, limit);
+        List<ProductAnalytics> analytics = reportingService.getTopProductsByCategory(category,
+                clampLimit(limit));
         return ResponseEntity.ok(analytics);
     }
     
+    @GetMapping("/analytics/top-selling/{outletId}/live")
+    @Operation(summary = "Get today's top selling products by outlet, updated as sales arrive")
+    public ResponseEntity<List<TopSeller>> getLiveTopSellingProducts(
+            @PathVariable Long outletId,
+            @RequestParam(defaultValue = "10") int limit) {
+        log.info("Getting live top {} selling products for outlet: {}", limit, outletId);
+        List<TopSeller> topSellers = reportingService.getLiveTopSellingProducts(outletId,
+                clampLimit(limit));
+        return ResponseEntity.ok(topSellers);
+    }
+    
+    @GetMapping("/analytics/category/{category}/live")
+    @Operation(summary = "Get today's top products by category, updated as sales arrive")
+    public ResponseEntity<List<TopSeller>> getLiveTopProductsByCategory(
+            @PathVariable String category,
+            @RequestParam(defaultValue = "10") int limit) {
+        log.info("Getting live top {} products for category: {}", limit, category);
+        List<TopSeller> topSellers = reportingService.getLiveTopProductsByCategory(category,
+                clampLimit(limit));
+        return ResponseEntity.ok(topSellers);
+    }
+    
     @GetMapping("/analytics/high-turnover/{outletId}")
     @Operation(summary = "Get high turnover products")
     public ResponseEntity<List<ProductAnalytics>> getHighTurnoverProducts(
@@ -157,6 +186,13 @@ public class ReportingController {
         return ResponseEntity.ok(summary);
     }
     
+    @GetMapping(value = "/dashboard/{outletId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream dashboard summary", description = "Server-Sent Events; a summary event is pushed on every change")
+    public SseEmitter streamDashboardSummary(@PathVariable Long outletId) {
+        log.info("Streaming dashboard summary for outlet: {}", outletId);
+        return reportingService.streamDashboardSummary(outletId);
+    }
+    
     @GetMapping("/trends/{outletId}")
     @Operation(summary = "Get sales trends")
     public ResponseEntity<Object> getSalesTrends(
@@ -178,4 +214,11 @@ public class ReportingController {
         Object metrics = reportingService.getProductPerformanceMetrics(outletId, startDate, endDate);
         return ResponseEntity.ok(metrics);
     }
+    
+    /**
+     * Bounds a requested top-N size to 1..MAX_LIMIT
+     */
+    private static int clampLimit(int limit) {
+        return Math.min(Math.max(limit, 1), MAX_LIMIT);
+    }
 }
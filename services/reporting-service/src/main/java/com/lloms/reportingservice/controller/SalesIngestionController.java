@@ -0,0 +1,34 @@
+package com.lloms.reportingservice.controller;
+
+import com.lloms.reportingservice.dto.IngestResult;
+import com.lloms.reportingservice.dto.SaleIngestRecord;
+import com.lloms.reportingservice.service.SalesIngestionService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/ingest")
+@Tag(name = "Sales Ingestion", description = "Receives sales published by the outlet service")
+public class SalesIngestionController {
+    
+    private final SalesIngestionService salesIngestionService;
+    
+    public SalesIngestionController(SalesIngestionService salesIngestionService) {
+        this.salesIngestionService = salesIngestionService;
+    }
+    
+    @PostMapping("/sales")
+    @Operation(summary = "Ingest a batch of sales", description = "Idempotent; a batch may be sent again after a failure")
+    public ResponseEntity<IngestResult> ingestSales(@RequestBody List<SaleIngestRecord> sales) {
+        return ResponseEntity.ok(salesIngestionService.ingestSales(sales));
+    }
+    
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleInvalidSale(IllegalArgumentException ex) {
+        return ResponseEntity.badRequest().body(ex.getMessage());
+    }
+}
@@ -0,0 +1,205 @@
+package com.lloms.reportingservice.dashboard;
+
+import com.lloms.reportingservice.dto.DashboardSummary;
+import com.lloms.reportingservice.dto.SaleIngestRecord;
+import com.lloms.reportingservice.event.SalesIngestedEvent;
+import com.lloms.reportingservice.repository.HourlySalesAggregateRepository;
+import com.lloms.reportingservice.repository.SalesFactRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Live dashboard state per outlet, held in memory and kept current by sales ingestion.
+ * An outlet's window is loaded from the hourly aggregates on its first read of the day;
+ * after that each ingested batch refreshes the outlets it touched and pushes the new
+ * summary to their subscribers, so a summary read never queries the database.
+ * Summaries are written to subscribers by a small bounded pool, off the ingestion thread.
+ * A subscriber that is still being written to only keeps the newest summary, and one whose
+ * write has been stuck too long, or that cannot be queued, is closed; EventSource clients
+ * reconnect and start from a fresh summary.
+ */
+@Component
+public class DashboardWindows {
+
+    private static final Logger log = LoggerFactory.getLogger(DashboardWindows.class);
+    private static final String SUMMARY_EVENT = "summary";
+    private static final int SEND_THREADS = 4;
+    private static final int SEND_QUEUE_CAPACITY = 10_000;
+    private static final long STALLED_SEND_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    private final Map<Long, OutletWindow> windows = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final ThreadPoolExecutor sender;
+    private final HourlySalesAggregateRepository hourlySalesAggregateRepository;
+    private final SalesFactRepository salesFactRepository;
+    private final Duration streamTimeout;
+
+    public DashboardWindows(HourlySalesAggregateRepository hourlySalesAggregateRepository,
+                            SalesFactRepository salesFactRepository,
+                            @Value("${app.dashboard.stream-timeout:30m}") Duration streamTimeout) {
+        this.hourlySalesAggregateRepository = hourlySalesAggregateRepository;
+        this.salesFactRepository = salesFactRepository;
+        this.streamTimeout = streamTimeout;
+        AtomicInteger threads = new AtomicInteger();
+        this.sender = new ThreadPoolExecutor(SEND_THREADS, SEND_THREADS, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(SEND_QUEUE_CAPACITY),
+                runnable -> new Thread(runnable, "dashboard-stream-" + threads.incrementAndGet()));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        sender.shutdownNow();
+    }
+
+    public DashboardSummary summary(Long outletId) {
+        return window(outletId).summarize(LocalDateTime.now());
+    }
+
+    /**
+     * Opens a stream that receives the outlet's summary now and after every change
+     */
+    public SseEmitter subscribe(Long outletId) {
+        SseEmitter emitter = new SseEmitter(streamTimeout.toMillis());
+        Subscriber subscriber = new Subscriber(emitter);
+        Set<Subscriber> outletSubscribers = subscribers.computeIfAbsent(outletId, id -> new CopyOnWriteArraySet<>());
+        outletSubscribers.add(subscriber);
+        emitter.onCompletion(() -> outletSubscribers.remove(subscriber));
+        emitter.onTimeout(() -> outletSubscribers.remove(subscriber));
+        emitter.onError(ex -> outletSubscribers.remove(subscriber));
+        subscriber.offer(summary(outletId));
+        return emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSalesIngested(SalesIngestedEvent event) {
+        LocalDate today = LocalDate.now();
+        for (Long outletId : event.outletIds()) {
+            OutletWindow window = windows.get(outletId);
+            if (window == null || !window.day().equals(today)) {
+                // Nobody has read this outlet today; its window is loaded on the first read
+                if (!hasSubscribers(outletId)) {
+                    continue;
+                }
+                window = window(outletId);
+            } else {
+                window.setHours(hourlySalesAggregateRepository
+                        .findByOutletIdAndSalesHourGreaterThanEqualAndSalesHourLessThan(outletId,
+                                today.minusDays(1).atStartOfDay(), today.plusDays(1).atStartOfDay()));
+                for (SaleIngestRecord sale : event.sales()) {
+                    if (sale.outletId().equals(outletId) && sale.customerId() != null
+                            && "COMPLETED".equals(sale.status()) && sale.soldAt().toLocalDate().equals(today)) {
+                        window.addCustomer(sale.customerId());
+                    }
+                }
+            }
+            publish(outletId, window.summarize(LocalDateTime.now()));
+        }
+    }
+
+    private OutletWindow window(Long outletId) {
+        LocalDate today = LocalDate.now();
+        OutletWindow window = windows.get(outletId);
+        if (window != null && window.day().equals(today)) {
+            return window;
+        }
+        return windows.compute(outletId, (id, current) ->
+                current != null && current.day().equals(today) ? current : load(id, today));
+    }
+
+    private OutletWindow load(Long outletId, LocalDate day) {
+        OutletWindow window = new OutletWindow(outletId, day);
+        LocalDateTime start = day.atStartOfDay();
+        LocalDateTime end = day.plusDays(1).atStartOfDay();
+        window.setHours(hourlySalesAggregateRepository
+                .findByOutletIdAndSalesHourGreaterThanEqualAndSalesHourLessThan(outletId, start.minusDays(1), end));
+        salesFactRepository.forEachCustomer(outletId, start, end, window::addCustomer);
+        log.debug("Loaded dashboard window for outlet: {} on {}", outletId, day);
+        return window;
+    }
+
+    private boolean hasSubscribers(Long outletId) {
+        Set<Subscriber> outletSubscribers = subscribers.get(outletId);
+        return outletSubscribers != null && !outletSubscribers.isEmpty();
+    }
+
+    private void publish(Long outletId, DashboardSummary summary) {
+        Set<Subscriber> outletSubscribers = subscribers.get(outletId);
+        if (outletSubscribers != null) {
+            outletSubscribers.forEach(subscriber -> subscriber.offer(summary));
+        }
+    }
+
+    /**
+     * One stream with at most one summary waiting to be written; a newer summary replaces it
+     */
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final AtomicReference<DashboardSummary> pending = new AtomicReference<>();
+        private volatile long sendingSince;
+
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        void offer(DashboardSummary summary) {
+            long since = sendingSince;
+            if (since != 0 && System.nanoTime() - since > STALLED_SEND_NANOS) {
+                log.debug("Closing dashboard stream stuck on a write for over {} s",
+                        TimeUnit.NANOSECONDS.toSeconds(STALLED_SEND_NANOS));
+                emitter.complete();
+                return;
+            }
+            if (pending.getAndSet(summary) != null) {
+                // A write is already queued and will pick up this summary
+                return;
+            }
+            try {
+                sender.execute(this::flush);
+            } catch (RejectedExecutionException ex) {
+                log.debug("Closing dashboard stream, sender queue is full");
+                emitter.complete();
+            }
+        }
+
+        /**
+         * Serialized per stream, so an older summary taken by one thread is never written after a newer one
+         */
+        private synchronized void flush() {
+            DashboardSummary summary = pending.getAndSet(null);
+            if (summary == null) {
+                return;
+            }
+            sendingSince = System.nanoTime();
+            try {
+                emitter.send(SseEmitter.event().name(SUMMARY_EVENT).data(summary, MediaType.APPLICATION_JSON));
+            } catch (IOException | IllegalStateException ex) {
+                // The client went away; completing triggers the removal callback
+                emitter.completeWithError(ex);
+            } finally {
+                sendingSince = 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.lloms.reportingservice.dashboard;
+
+import com.lloms.reportingservice.aggregation.HeavyHitters;
+import com.lloms.reportingservice.dto.SaleIngestRecord;
+import com.lloms.reportingservice.dto.TopSeller;
+import com.lloms.reportingservice.event.SalesIngestedEvent;
+import com.lloms.reportingservice.repository.SalesFactRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * Today's best selling products per outlet and per category, kept in Space-Saving sketches
+ * of fixed size. A sketch is seeded from today's sales on its first read, then counts every
+ * sale ingested for the first time. Redelivered sales are not counted again; refunds are not
+ * taken back, as the sketch only counts up.
+ * Seeding excludes ingestion from its commit until its sales are counted, so every sale
+ * is either in the seed or counted afterwards, never both or neither.
+ * Sketches exist only for outlets and categories that have sold today.
+ */
+@Component
+public class LiveTopSellers {
+
+    /**
+     * Counters per sketch; rankings are exact while fewer products than this sold,
+     * and reliable well beyond that for the few products a dashboard shows
+     */
+    static final int CAPACITY = 256;
+
+    private static final Logger log = LoggerFactory.getLogger(LiveTopSellers.class);
+
+    private final Map<Long, Board> outlets = new ConcurrentHashMap<>();
+    private final Map<String, Board> categories = new ConcurrentHashMap<>();
+
+    /**
+     * Shared by ingestion transactions from before commit until after their sales are counted,
+     * exclusive while seeding
+     */
+    private final ReadWriteLock ingestLock = new ReentrantReadWriteLock();
+    private final SalesFactRepository salesFactRepository;
+
+    public LiveTopSellers(SalesFactRepository salesFactRepository) {
+        this.salesFactRepository = salesFactRepository;
+    }
+
+    public List<TopSeller> topForOutlet(Long outletId, int limit) {
+        return top(outlets, outletId, () -> seed(outletId, null), limit);
+    }
+
+    public List<TopSeller> topForCategory(String category, int limit) {
+        return top(categories, category, () -> seed(null, category), limit);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void beforeSalesCommitted(SalesIngestedEvent event) {
+        ingestLock.readLock().lock();
+        // Completion callbacks run after every after-commit listener, onSalesIngested included
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                ingestLock.readLock().unlock();
+            }
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSalesIngested(SalesIngestedEvent event) {
+        LocalDate today = LocalDate.now();
+        for (SaleIngestRecord sale : event.newSales()) {
+            if (!"COMPLETED".equals(sale.status()) || !sale.soldAt().toLocalDate().equals(today)) {
+                continue;
+            }
+            Board outlet = current(outlets.get(sale.outletId()), today);
+            for (SaleIngestRecord.Line line : sale.items()) {
+                if (outlet != null) {
+                    outlet.offer(line);
+                }
+                Board category = line.category() == null ? null : current(categories.get(line.category()), today);
+                if (category != null) {
+                    category.offer(line);
+                }
+            }
+        }
+    }
+
+    private <K> List<TopSeller> top(Map<K, Board> boards, K key, Supplier<Board> loader, int limit) {
+        LocalDate today = LocalDate.now();
+        Board board = current(boards.get(key), today);
+        if (board == null) {
+            ingestLock.writeLock().lock();
+            try {
+                board = current(boards.get(key), today);
+                if (board == null) {
+                    board = loader.get();
+                    if (board.isEmpty()) {
+                        // Not kept, so keys without sales cannot accumulate sketches
+                        return List.of();
+                    }
+                    boards.put(key, board);
+                }
+            } finally {
+                ingestLock.writeLock().unlock();
+            }
+        }
+        return board.top(Math.min(limit, CAPACITY));
+    }
+
+    private Board seed(Long outletId, String category) {
+        LocalDate today = LocalDate.now();
+        Board board = new Board(today);
+        salesFactRepository.forEachProductSold(outletId, category, today.atStartOfDay(),
+                today.plusDays(1).atStartOfDay(), board::offer);
+        log.debug("Seeded live top sellers for outlet: {} category: {}", outletId, category);
+        return board;
+    }
+
+    private static Board current(Board board, LocalDate today) {
+        return board != null && board.day.equals(today) ? board : null;
+    }
+
+    private static final class Board {
+
+        private final LocalDate day;
+        private final HeavyHitters sketch = new HeavyHitters(CAPACITY);
+        private boolean empty = true;
+
+        Board(LocalDate day) {
+            this.day = day;
+        }
+
+        synchronized void offer(String productId, String productName, long quantity) {
+            sketch.offer(productId, productName != null ? productName : productId, quantity);
+            empty = false;
+        }
+
+        void offer(SaleIngestRecord.Line line) {
+            offer(line.productId(), line.productName(), line.quantity());
+        }
+
+        synchronized boolean isEmpty() {
+            return empty;
+        }
+
+        synchronized List<TopSeller> top(int limit) {
+            return sketch.top(limit).stream()
+                    .map(counter -> new TopSeller(counter.key(), counter.label(), counter.count(), counter.error()))
+                    .toList();
+        }
+    }
+}
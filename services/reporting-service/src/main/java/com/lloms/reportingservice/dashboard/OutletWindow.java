@@ -0,0 +1,111 @@
+package com.lloms.reportingservice.dashboard;
+
+import com.lloms.reportingservice.aggregation.SalesSummary;
+import com.lloms.reportingservice.dto.DashboardSummary;
+import com.lloms.reportingservice.entity.HourlySalesAggregate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Yesterday's and today's sales of one outlet by hour, plus today's distinct customers.
+ * Every read sums a fixed 48 hours, so serving a summary does not depend on sales volume.
+ */
+final class OutletWindow {
+
+    private static final int HOURS = 24;
+
+    private final Long outletId;
+    private final LocalDate day;
+    private final long[] cents = new long[2 * HOURS];
+    private final long[] orders = new long[2 * HOURS];
+    private final long[] items = new long[2 * HOURS];
+    private final HyperLogLog customers = new HyperLogLog();
+    private LocalDateTime lastUpdated;
+
+    OutletWindow(Long outletId, LocalDate day) {
+        this.outletId = outletId;
+        this.day = day;
+    }
+
+    LocalDate day() {
+        return day;
+    }
+
+    /**
+     * Replaces the hourly totals with the recounted ones; rows outside yesterday and today are ignored
+     */
+    synchronized void setHours(List<HourlySalesAggregate> hours) {
+        Arrays.fill(cents, 0);
+        Arrays.fill(orders, 0);
+        Arrays.fill(items, 0);
+        lastUpdated = null;
+        for (HourlySalesAggregate hour : hours) {
+            int slot = slot(hour.getSalesHour());
+            if (slot < 0) {
+                continue;
+            }
+            cents[slot] = hour.getSalesCents();
+            orders[slot] = hour.getOrders();
+            items[slot] = hour.getItemsSold();
+            if (slot >= HOURS && (lastUpdated == null || hour.getUpdatedAt().isAfter(lastUpdated))) {
+                lastUpdated = hour.getUpdatedAt();
+            }
+        }
+    }
+
+    synchronized void addCustomer(String customerId) {
+        customers.add(customerId);
+    }
+
+    synchronized DashboardSummary summarize(LocalDateTime now) {
+        long todayCents = 0;
+        long todayOrders = 0;
+        long todayItems = 0;
+        for (int slot = HOURS; slot < 2 * HOURS; slot++) {
+            todayCents += cents[slot];
+            todayOrders += orders[slot];
+            todayItems += items[slot];
+        }
+
+        // Yesterday up to the same time: whole hours before now, and the current hour pro rata
+        int hour = Math.min(now.getHour(), HOURS - 1);
+        double elapsed = now.getMinute() / 60.0;
+        double yesterdayCents = cents[hour] * elapsed;
+        double yesterdayOrders = orders[hour] * elapsed;
+        for (int slot = 0; slot < hour; slot++) {
+            yesterdayCents += cents[slot];
+            yesterdayOrders += orders[slot];
+        }
+
+        SalesSummary summary = new SalesSummary(todayCents, todayOrders, todayItems, null, null);
+        return new DashboardSummary(outletId, summary.totalSales(), todayOrders, todayItems,
+                summary.averageOrderValue(), customers.estimate(), growth(todayCents, yesterdayCents),
+                growth(todayOrders, yesterdayOrders), lastUpdated);
+    }
+
+    /**
+     * @return index into the hourly arrays, yesterday first, or -1 outside the window
+     */
+    private int slot(LocalDateTime hour) {
+        if (hour.toLocalDate().equals(day)) {
+            return HOURS + hour.getHour();
+        }
+        if (hour.toLocalDate().equals(day.minusDays(1))) {
+            return hour.getHour();
+        }
+        return -1;
+    }
+
+    private static Double growth(long current, double previous) {
+        if (previous <= 0) {
+            return null;
+        }
+        return BigDecimal.valueOf((current - previous) * 100.0 / previous).setScale(1, RoundingMode.HALF_UP)
+                .doubleValue();
+    }
+}
@@ -0,0 +1,20 @@
+package com.lloms.reportingservice.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Today's sales of one outlet so far. Growth compares with yesterday up to the same
+ * time of day and is null when yesterday had nothing to compare against.
+ */
+public record DashboardSummary(
+        Long outletId,
+        BigDecimal totalSales,
+        long totalOrders,
+        long totalItemsSold,
+        BigDecimal averageOrderValue,
+        long distinctCustomers,
+        Double salesGrowth,
+        Double orderGrowth,
+        LocalDateTime lastUpdated) {
+}
@@ -0,0 +1,9 @@
+package com.lloms.reportingservice.dto;
+
+/**
+ * @param received sales in the batch
+ * @param applied  sales written, same-version replays included; the rest were already stored at a newer version
+ * @param hours    outlet hours recounted
+ */
+public record IngestResult(int received, int applied, int hours) {
+}
@@ -0,0 +1,24 @@
+package com.lloms.reportingservice.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * A sale as published by the outlet service. Delivery is at least once: the same
+ * sale may arrive again, or an older version after a newer one.
+ */
+public record SaleIngestRecord(
+        String saleId,
+        String saleNumber,
+        Long outletId,
+        String customerId,
+        LocalDateTime soldAt,
+        String status,
+        long version,
+        BigDecimal totalAmount,
+        List<Line> items) {
+
+    public record Line(String productId, String productName, String category, int quantity, BigDecimal totalPrice) {
+    }
+}
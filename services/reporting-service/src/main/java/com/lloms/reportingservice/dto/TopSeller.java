@@ -0,0 +1,8 @@
+package com.lloms.reportingservice.dto;
+
+/**
+ * A live top seller. Quantity may overstate true sales by at most maxOverstatement,
+ * which stays zero unless the product entered the ranking after others were evicted.
+ */
+public record TopSeller(String productId, String productName, long quantity, long maxOverstatement) {
+}
@@ -0,0 +1,55 @@
+package com.lloms.reportingservice.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Partial sums of one outlet's completed sales on one day. Weekly, monthly and yearly
+ * reports are merged from these rows, so they cost one row per day instead of a scan of
+ * the sales. Money is kept in cents and the top sellers as serialized TopKSketch bytes.
+ */
+@Entity
+@Table(name = "daily_sales_aggregates", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_daily_sales_aggregates_outlet_date", columnNames = {"outlet_id", "sales_date"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailySalesAggregate {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "outlet_id", nullable = false)
+    private Long outletId;
+    
+    @Column(name = "sales_date", nullable = false)
+    private LocalDate salesDate;
+    
+    @Column(name = "sales_cents", nullable = false)
+    private long salesCents;
+    
+    @Column(name = "orders", nullable = false)
+    private long orders;
+    
+    @Column(name = "items_sold", nullable = false)
+    private long itemsSold;
+    
+    @Column(name = "product_sketch", nullable = false)
+    private byte[] productSketch;
+    
+    @Column(name = "category_sketch", nullable = false)
+    private byte[] categorySketch;
+    
+    /**
+     * When the sums were taken; a day summed before it ended is taken again
+     */
+    @Column(name = "computed_at", nullable = false)
+    private LocalDateTime computedAt;
+}
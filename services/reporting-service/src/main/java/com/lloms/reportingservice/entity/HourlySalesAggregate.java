@@ -0,0 +1,44 @@
+package com.lloms.reportingservice.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Completed sales of one outlet in one hour, kept current by sales ingestion.
+ * Each ingested batch recounts the hours it touched, so a redelivered sale never counts twice.
+ */
+@Entity
+@Table(name = "hourly_sales_aggregates", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_hourly_sales_aggregates_outlet_hour", columnNames = {"outlet_id", "sales_hour"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class HourlySalesAggregate {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "outlet_id", nullable = false)
+    private Long outletId;
+    
+    @Column(name = "sales_hour", nullable = false)
+    private LocalDateTime salesHour;
+    
+    @Column(name = "orders", nullable = false)
+    private long orders;
+    
+    @Column(name = "sales_cents", nullable = false)
+    private long salesCents;
+    
+    @Column(name = "items_sold", nullable = false)
+    private long itemsSold;
+    
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,59 @@
+package com.lloms.reportingservice.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One sale as recorded by an outlet, the source the sales reports are aggregated from.
+ * Keyed by the outlet service's sale ID so a sale delivered twice lands on the same row.
+ */
+@Entity
+@Table(name = "sale_facts", indexes = {
+    @Index(name = "idx_sale_facts_outlet_sold_at", columnList = "outlet_id, sold_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SaleFact {
+    
+    @Id
+    @Column(name = "sale_id", length = 64)
+    private String saleId;
+    
+    @Column(name = "sale_number")
+    private String saleNumber;
+    
+    @Column(name = "outlet_id", nullable = false)
+    private Long outletId;
+    
+    @Column(name = "customer_id", length = 64)
+    private String customerId;
+    
+    @Column(name = "sold_at", nullable = false)
+    private LocalDateTime soldAt;
+    
+    @Column(name = "status", length = 20, nullable = false)
+    @Enumerated(EnumType.STRING)
+    private SaleStatus status;
+    
+    @Column(name = "item_count")
+    private Integer itemCount;
+    
+    @Column(name = "total_amount", precision = 12, scale = 2)
+    private BigDecimal totalAmount;
+    
+    /**
+     * Version of the sale document in the outlet service; an older copy never overwrites a newer one
+     */
+    @Column(name = "version", nullable = false)
+    private Long version;
+    
+    public enum SaleStatus {
+        PENDING, COMPLETED, CANCELLED, REFUNDED, PARTIALLY_REFUNDED
+    }
+}
@@ -0,0 +1,61 @@
+package com.lloms.reportingservice.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One line of a sale. Outlet, time and status are copied from the sale so a period
+ * is aggregated from this table alone, without a join.
+ */
+@Entity
+@Table(name = "sale_item_facts", indexes = {
+    @Index(name = "idx_sale_item_facts_outlet_sold_at", columnList = "outlet_id, sold_at"),
+    @Index(name = "idx_sale_item_facts_category_sold_at", columnList = "category, sold_at")
+}, uniqueConstraints = {
+    @UniqueConstraint(name = "uk_sale_item_facts_sale_line", columnNames = {"sale_id", "line_number"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SaleItemFact {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "sale_id", length = 64, nullable = false)
+    private String saleId;
+    
+    @Column(name = "line_number", nullable = false)
+    private Integer lineNumber;
+    
+    @Column(name = "outlet_id", nullable = false)
+    private Long outletId;
+    
+    @Column(name = "sold_at", nullable = false)
+    private LocalDateTime soldAt;
+    
+    @Column(name = "status", length = 20, nullable = false)
+    @Enumerated(EnumType.STRING)
+    private SaleFact.SaleStatus status;
+    
+    @Column(name = "product_id", length = 64, nullable = false)
+    private String productId;
+    
+    @Column(name = "product_name")
+    private String productName;
+    
+    @Column(name = "category")
+    private String category;
+    
+    @Column(name = "quantity", nullable = false)
+    private Integer quantity;
+    
+    @Column(name = "total_price", precision = 12, scale = 2)
+    private BigDecimal totalPrice;
+}
@@ -0,0 +1,16 @@
+package com.lloms.reportingservice.event;
+
+import com.lloms.reportingservice.dto.SaleIngestRecord;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Published when an ingested batch changed stored sales; listeners run after the batch commits.
+ *
+ * @param outletIds outlets whose hourly aggregates were recounted
+ * @param sales     sales written by the batch
+ * @param newSales  sales in the batch seen for the first time, never redeliveries or updates
+ */
+public record SalesIngestedEvent(Set<Long> outletIds, List<SaleIngestRecord> sales, List<SaleIngestRecord> newSales) {
+}
@@ -0,0 +1,17 @@
+package com.lloms.reportingservice.repository;
+
+import com.lloms.reportingservice.entity.DailySalesAggregate;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface DailySalesAggregateRepository extends JpaRepository<DailySalesAggregate, Long> {
+    
+    Optional<DailySalesAggregate> findByOutletIdAndSalesDate(Long outletId, LocalDate salesDate);
+    
+    List<DailySalesAggregate> findByOutletIdAndSalesDateBetween(Long outletId, LocalDate startDate, LocalDate endDate);
+}
@@ -0,0 +1,18 @@
+package com.lloms.reportingservice.repository;
+
+import com.lloms.reportingservice.entity.HourlySalesAggregate;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface HourlySalesAggregateRepository extends JpaRepository<HourlySalesAggregate, Long> {
+    
+    List<HourlySalesAggregate> findByOutletIdAndSalesHourGreaterThanEqualAndSalesHourLessThan(
+        Long outletId,
+        LocalDateTime startHour,
+        LocalDateTime endHour
+    );
+}
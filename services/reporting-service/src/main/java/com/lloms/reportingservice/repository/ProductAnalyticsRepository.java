@@ -1,6 +1,7 @@
 package com.lloms.reportingservice.repository;
 
 import com.lloms.reportingservice.entity.ProductAnalytics;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -25,10 +26,10 @@ public interface ProductAnalyticsRepository extends JpaRepository<ProductAnalyti
     );
     
     @Query("SELECT pa FROM ProductAnalytics pa WHERE pa.outletId = :outletId ORDER BY pa.totalQuantitySold DESC")
-    List<ProductAnalytics> findTopSellingProductsByOutlet(@Param("outletId") Long outletId);
+    List<ProductAnalytics> findTopSellingProductsByOutlet(@Param("outletId") Long outletId, Limit limit);
     
     @Query("SELECT pa FROM ProductAnalytics pa WHERE pa.category = :category ORDER BY pa.totalRevenue DESC")
-    List<ProductAnalytics> findTopProductsByCategory(@Param("category") String category);
+    List<ProductAnalytics> findTopProductsByCategory(@Param("category") String category, Limit limit);
     
     @Query("SELECT pa FROM ProductAnalytics pa WHERE pa.outletId = :outletId AND pa.analysisDate >= :startDate ORDER BY pa.stockTurnoverRate DESC")
     List<ProductAnalytics> findHighTurnoverProducts(@Param("outletId") Long outletId, @Param("startDate") LocalDateTime startDate);
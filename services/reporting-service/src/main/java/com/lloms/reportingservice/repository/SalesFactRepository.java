@@ -0,0 +1,84 @@
+package com.lloms.reportingservice.repository;
+
+import com.lloms.reportingservice.aggregation.SalesAccumulator;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+
+/**
+ * JDBC repository that streams completed sales for one outlet and period into an accumulator.
+ * Rows are read column by column straight into primitives; nothing is mapped to objects
+ * or collected, so a year of sales is aggregated in the memory of one fetch batch.
+ */
+@Repository
+public class SalesFactRepository {
+
+    private static final int FETCH_SIZE = 5000;
+
+    private static final String SALES_SQL = "SELECT (total_amount * 100)::bigint FROM sale_facts " +
+            "WHERE outlet_id = ? AND sold_at >= ? AND sold_at < ? AND status = 'COMPLETED'";
+
+    private static final String LINES_SQL = "SELECT product_id, product_name, category, quantity, " +
+            "(total_price * 100)::bigint FROM sale_item_facts " +
+            "WHERE outlet_id = ? AND sold_at >= ? AND sold_at < ? AND status = 'COMPLETED'";
+
+    private static final String CUSTOMERS_SQL = "SELECT customer_id FROM sale_facts " +
+            "WHERE outlet_id = ? AND sold_at >= ? AND sold_at < ? AND status = 'COMPLETED' AND customer_id IS NOT NULL";
+
+    private static final String PRODUCTS_SQL = "SELECT product_id, MAX(product_name), SUM(quantity) " +
+            "FROM sale_item_facts WHERE sold_at >= ? AND sold_at < ? AND status = 'COMPLETED' AND ";
+
+    private static final String PRODUCTS_ORDER_SQL = " GROUP BY product_id ORDER BY 3 DESC";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public SalesFactRepository(JdbcTemplate jdbcTemplate) {
+        // A yearly report scans every sale of the year; fetch in batches instead of buffering the result set
+        this.jdbcTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        this.jdbcTemplate.setFetchSize(FETCH_SIZE);
+    }
+
+    /**
+     * Feeds completed sales and their lines sold in [from, to) to the accumulator.
+     * Must run inside a transaction for the fetch size to apply.
+     */
+    public void aggregate(Long outletId, LocalDateTime from, LocalDateTime to, SalesAccumulator accumulator) {
+        Timestamp start = Timestamp.valueOf(from);
+        Timestamp end = Timestamp.valueOf(to);
+        jdbcTemplate.query(SALES_SQL, rs -> {
+            accumulator.addSale(rs.getLong(1));
+        }, outletId, start, end);
+        jdbcTemplate.query(LINES_SQL, rs -> {
+            accumulator.addLine(rs.getString(1), rs.getString(2), rs.getString(3), rs.getLong(4), rs.getLong(5));
+        }, outletId, start, end);
+    }
+
+    /**
+     * Feeds the quantity sold of each product in [from, to), best sellers first,
+     * for one outlet or, when outletId is null, for one category across outlets
+     */
+    public void forEachProductSold(Long outletId, String category, LocalDateTime from, LocalDateTime to,
+                                   ProductQuantityConsumer consumer) {
+        String sql = PRODUCTS_SQL + (outletId != null ? "outlet_id = ?" : "category = ?") + PRODUCTS_ORDER_SQL;
+        jdbcTemplate.query(sql, rs -> {
+            consumer.accept(rs.getString(1), rs.getString(2), rs.getLong(3));
+        }, Timestamp.valueOf(from), Timestamp.valueOf(to), outletId != null ? outletId : category);
+    }
+
+    /**
+     * Feeds the customer of every completed sale in [from, to) to the consumer, repeats included
+     */
+    public void forEachCustomer(Long outletId, LocalDateTime from, LocalDateTime to, Consumer<String> consumer) {
+        jdbcTemplate.query(CUSTOMERS_SQL, rs -> {
+            consumer.accept(rs.getString(1));
+        }, outletId, Timestamp.valueOf(from), Timestamp.valueOf(to));
+    }
+
+    @FunctionalInterface
+    public interface ProductQuantityConsumer {
+        void accept(String productId, String productName, long quantity);
+    }
+}
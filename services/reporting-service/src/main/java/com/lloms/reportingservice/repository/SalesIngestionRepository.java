@@ -0,0 +1,206 @@
+package com.lloms.reportingservice.repository;
+
+import com.lloms.reportingservice.dto.SaleIngestRecord;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * JDBC repository for sales ingestion. Each statement covers a whole batch: sales are upserted
+ * as one JDBC batch, lines replaced per sale, and touched hours recounted in one set-based statement.
+ */
+@Repository
+public class SalesIngestionRepository {
+
+    private static final String STORED_SALES_SQL = "SELECT sale_id, outlet_id, date_trunc('hour', sold_at) " +
+            "FROM sale_facts WHERE sale_id = ANY (?)";
+
+    /**
+     * Only a copy at least as new as the stored one is written; a replay of the same version
+     * rewrites identical values, an older one is skipped and reports zero rows.
+     * Same-version writes are kept because sales saved without a version all arrive as version 0.
+     */
+    private static final String UPSERT_SALE_SQL = "INSERT INTO sale_facts (sale_id, sale_number, outlet_id, customer_id, " +
+            "sold_at, status, item_count, total_amount, version) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?) " +
+            "ON CONFLICT (sale_id) DO UPDATE SET sale_number = EXCLUDED.sale_number, " +
+            "outlet_id = EXCLUDED.outlet_id, customer_id = EXCLUDED.customer_id, sold_at = EXCLUDED.sold_at, status = EXCLUDED.status, " +
+            "item_count = EXCLUDED.item_count, total_amount = EXCLUDED.total_amount, version = EXCLUDED.version " +
+            "WHERE sale_facts.version <= EXCLUDED.version";
+
+    private static final String DELETE_LINES_SQL = "DELETE FROM sale_item_facts WHERE sale_id = ANY (?)";
+
+    private static final String INSERT_LINE_SQL = "INSERT INTO sale_item_facts (sale_id, line_number, outlet_id, " +
+            "sold_at, status, product_id, product_name, category, quantity, total_price) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    /**
+     * One transaction-scoped lock per outlet hour, so batches recounting the same hour
+     * take turns. Keys are the outlet ID and the hour's number since the epoch.
+     */
+    private static final String LOCK_HOURS_SQL = "SELECT pg_advisory_xact_lock(h.outlet_id::int, " +
+            "(EXTRACT(EPOCH FROM h.sales_hour) / 3600)::int) " +
+            "FROM unnest(?::bigint[], ?::timestamp[]) AS h (outlet_id, sales_hour)";
+
+    /**
+     * Recounts whole hours from the stored sales, so the result does not depend on
+     * how often or in which order sales were delivered. Hours left without sales are zeroed.
+     */
+    private static final String RECOUNT_HOURS_SQL = "INSERT INTO hourly_sales_aggregates (outlet_id, sales_hour, " +
+            "orders, sales_cents, items_sold, updated_at) " +
+            "SELECT h.outlet_id, h.sales_hour, COUNT(s.sale_id), " +
+            "COALESCE(SUM((s.total_amount * 100)::bigint), 0), COALESCE(SUM(s.item_count), 0), LOCALTIMESTAMP " +
+            "FROM unnest(?::bigint[], ?::timestamp[]) AS h (outlet_id, sales_hour) " +
+            "LEFT JOIN sale_facts s ON s.outlet_id = h.outlet_id AND s.sold_at >= h.sales_hour " +
+            "AND s.sold_at < h.sales_hour + INTERVAL '1 hour' AND s.status = 'COMPLETED' " +
+            "GROUP BY h.outlet_id, h.sales_hour " +
+            "ON CONFLICT (outlet_id, sales_hour) DO UPDATE SET orders = EXCLUDED.orders, " +
+            "sales_cents = EXCLUDED.sales_cents, items_sold = EXCLUDED.items_sold, updated_at = EXCLUDED.updated_at";
+
+    private static final String DELETE_DAILY_SQL = "DELETE FROM daily_sales_aggregates d " +
+            "USING unnest(?::bigint[], ?::date[]) AS t (outlet_id, sales_date) " +
+            "WHERE d.outlet_id = t.outlet_id AND d.sales_date = t.sales_date";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public SalesIngestionRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * @return the sales already stored, with the outlet hour each falls in, to recount hours a sale moved out of
+     */
+    public List<StoredSale> findStored(Collection<String> saleIds) {
+        return jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(STORED_SALES_SQL);
+            ps.setArray(1, con.createArrayOf("varchar", saleIds.toArray()));
+            return ps;
+        }, (rs, rowNum) -> new StoredSale(rs.getString(1),
+                new OutletHour(rs.getLong(2), rs.getTimestamp(3).toLocalDateTime())));
+    }
+
+    /**
+     * @return the sales that were written; the others are stored at a newer version already
+     */
+    public List<SaleIngestRecord> upsertSales(List<SaleIngestRecord> sales) {
+        int[] counts = jdbcTemplate.batchUpdate(UPSERT_SALE_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                SaleIngestRecord sale = sales.get(i);
+                ps.setString(1, sale.saleId());
+                ps.setString(2, sale.saleNumber());
+                ps.setLong(3, sale.outletId());
+                ps.setString(4, sale.customerId());
+                ps.setTimestamp(5, Timestamp.valueOf(sale.soldAt()));
+                ps.setString(6, sale.status());
+                ps.setInt(7, sale.items().stream().mapToInt(SaleIngestRecord.Line::quantity).sum());
+                ps.setBigDecimal(8, sale.totalAmount());
+                ps.setLong(9, sale.version());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return sales.size();
+            }
+        });
+        List<SaleIngestRecord> applied = new ArrayList<>(sales.size());
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] != 0) {
+                applied.add(sales.get(i));
+            }
+        }
+        return applied;
+    }
+
+    /**
+     * Replaces the lines of the given sales with the lines they carry
+     */
+    public void replaceLines(List<SaleIngestRecord> sales) {
+        jdbcTemplate.update(con -> {
+            PreparedStatement ps = con.prepareStatement(DELETE_LINES_SQL);
+            ps.setArray(1, con.createArrayOf("varchar", sales.stream().map(SaleIngestRecord::saleId).toArray()));
+            return ps;
+        });
+
+        List<Object[]> lines = new ArrayList<>();
+        for (SaleIngestRecord sale : sales) {
+            Timestamp soldAt = Timestamp.valueOf(sale.soldAt());
+            int lineNumber = 0;
+            for (SaleIngestRecord.Line line : sale.items()) {
+                lines.add(new Object[]{sale.saleId(), ++lineNumber, sale.outletId(), soldAt, sale.status(),
+                        line.productId(), line.productName(), line.category(), line.quantity(), line.totalPrice()});
+            }
+        }
+        jdbcTemplate.batchUpdate(INSERT_LINE_SQL, lines, new int[]{Types.VARCHAR, Types.INTEGER, Types.BIGINT,
+                Types.TIMESTAMP, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.INTEGER,
+                Types.NUMERIC});
+    }
+
+    /**
+     * Locks the given outlet hours until the transaction ends. Taken in a statement of its
+     * own before the recount, so the recount reads every sale committed by the batch that
+     * held the lock before it; otherwise two batches each miss the other's uncommitted
+     * sales and the one committing last leaves the hour undercounted.
+     * Locks are taken in a fixed order so overlapping batches queue instead of deadlocking.
+     */
+    public void lockHours(Collection<OutletHour> hours) {
+        List<OutletHour> ordered = hours.stream()
+                .sorted(Comparator.comparingLong(OutletHour::outletId).thenComparing(OutletHour::hour))
+                .toList();
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(LOCK_HOURS_SQL);
+            setOutletHours(con, ps, ordered, false);
+            return ps;
+        }, rs -> {
+        });
+    }
+
+    public void recountHours(Collection<OutletHour> hours) {
+        jdbcTemplate.update(con -> {
+            PreparedStatement ps = con.prepareStatement(RECOUNT_HOURS_SQL);
+            setOutletHours(con, ps, hours, false);
+            return ps;
+        });
+    }
+
+    /**
+     * Drops the daily aggregates of the days these hours fall in, so reports sum them again
+     */
+    public void invalidateDays(Collection<OutletHour> hours) {
+        jdbcTemplate.update(con -> {
+            PreparedStatement ps = con.prepareStatement(DELETE_DAILY_SQL);
+            setOutletHours(con, ps, hours, true);
+            return ps;
+        });
+    }
+
+    private static void setOutletHours(Connection con, PreparedStatement ps, Collection<OutletHour> hours,
+                                       boolean days) throws SQLException {
+        Object[] outletIds = new Object[hours.size()];
+        Object[] times = new Object[hours.size()];
+        int i = 0;
+        for (OutletHour hour : hours) {
+            outletIds[i] = hour.outletId();
+            times[i++] = days ? Date.valueOf(hour.hour().toLocalDate()) : Timestamp.valueOf(hour.hour());
+        }
+        ps.setArray(1, con.createArrayOf("bigint", outletIds));
+        ps.setArray(2, con.createArrayOf(days ? "date" : "timestamp", times));
+    }
+
+    public record OutletHour(long outletId, LocalDateTime hour) {
+    }
+
+    public record StoredSale(String saleId, OutletHour hour) {
+    }
+}
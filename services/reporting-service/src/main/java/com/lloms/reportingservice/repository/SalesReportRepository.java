@@ -1,6 +1,7 @@
 package com.lloms.reportingservice.repository;
 
 import com.lloms.reportingservice.entity.SalesReport;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -8,12 +9,19 @@ import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface SalesReportRepository extends JpaRepository<SalesReport, Long> {
     
     List<SalesReport> findByOutletIdAndReportType(Long outletId, SalesReport.ReportType reportType);
     
+    Optional<SalesReport> findByOutletIdAndReportDateAndReportType(
+        Long outletId,
+        LocalDateTime reportDate,
+        SalesReport.ReportType reportType
+    );
+    
     List<SalesReport> findByReportDateBetweenAndReportType(
         LocalDateTime startDate, 
         LocalDateTime endDate, 
@@ -28,5 +36,5 @@ public interface SalesReportRepository extends JpaRepository<SalesReport, Long>
     );
     
     @Query("SELECT sr FROM SalesReport sr WHERE sr.reportType = :reportType ORDER BY sr.totalSales DESC")
-    List<SalesReport> findTopPerformersByReportType(@Param("reportType") SalesReport.ReportType reportType);
+    List<SalesReport> findTopPerformersByReportType(@Param("reportType") SalesReport.ReportType reportType, Limit limit);
 }
@@ -1,7 +1,9 @@
 package com.lloms.reportingservice.service;
 
+import com.lloms.reportingservice.dto.TopSeller;
 import com.lloms.reportingservice.entity.ProductAnalytics;
 import com.lloms.reportingservice.entity.SalesReport;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -23,10 +25,13 @@ public interface ReportingService {
     List<ProductAnalytics> getProductAnalyticsByOutlet(Long outletId, LocalDateTime startDate, LocalDateTime endDate);
     List<ProductAnalytics> getTopSellingProducts(Long outletId, int limit);
     List<ProductAnalytics> getTopProductsByCategory(String category, int limit);
+    List<TopSeller> getLiveTopSellingProducts(Long outletId, int limit);
+    List<TopSeller> getLiveTopProductsByCategory(String category, int limit);
     List<ProductAnalytics> getHighTurnoverProducts(Long outletId, LocalDateTime startDate);
     
     // Dashboard Data
     Object getDashboardSummary(Long outletId);
+    SseEmitter streamDashboardSummary(Long outletId);
     Object getSalesTrends(Long outletId, LocalDateTime startDate, LocalDateTime endDate);
     Object getProductPerformanceMetrics(Long outletId, LocalDateTime startDate, LocalDateTime endDate);
 }
@@ -0,0 +1,15 @@
+package com.lloms.reportingservice.service;
+
+import com.lloms.reportingservice.dto.IngestResult;
+import com.lloms.reportingservice.dto.SaleIngestRecord;
+
+import java.util.List;
+
+public interface SalesIngestionService {
+    
+    /**
+     * Stores a batch of published sales and recounts the outlet hours they fall in.
+     * Safe to repeat: redelivered and out of date sales leave the stored data unchanged.
+     */
+    IngestResult ingestSales(List<SaleIngestRecord> sales);
+}
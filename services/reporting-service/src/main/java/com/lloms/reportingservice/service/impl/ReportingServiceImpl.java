@@ -1,5 +1,12 @@
 package com.lloms.reportingservice.service.impl;
 
+import com.lloms.reportingservice.aggregation.DailyAggregateStore;
+import com.lloms.reportingservice.aggregation.SalesRollup;
+import com.lloms.reportingservice.aggregation.SalesSummary;
+import com.lloms.reportingservice.dashboard.DashboardWindows;
+import com.lloms.reportingservice.dashboard.LiveTopSellers;
+import com.lloms.reportingservice.dto.TopSeller;
+import com.lloms.reportingservice.entity.DailySalesAggregate;
 import com.lloms.reportingservice.entity.ProductAnalytics;
 import com.lloms.reportingservice.entity.SalesReport;
 import com.lloms.reportingservice.repository.ProductAnalyticsRepository;
@@ -7,8 +14,10 @@ import com.lloms.reportingservice.repository.SalesReportRepository;
 import com.lloms.reportingservice.service.ReportingService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
@@ -24,85 +33,74 @@ public class ReportingServiceImpl implements ReportingService {
     private static final Logger log = LoggerFactory.getLogger(ReportingServiceImpl.class);
     private final SalesReportRepository salesReportRepository;
     private final ProductAnalyticsRepository productAnalyticsRepository;
+    private final DailyAggregateStore dailyAggregateStore;
+    private final DashboardWindows dashboardWindows;
+    private final LiveTopSellers liveTopSellers;
     
-    public ReportingServiceImpl(SalesReportRepository salesReportRepository, ProductAnalyticsRepository productAnalyticsRepository) {
+    public ReportingServiceImpl(SalesReportRepository salesReportRepository, ProductAnalyticsRepository productAnalyticsRepository,
+                                DailyAggregateStore dailyAggregateStore, DashboardWindows dashboardWindows,
+                                LiveTopSellers liveTopSellers) {
         this.salesReportRepository = salesReportRepository;
         this.productAnalyticsRepository = productAnalyticsRepository;
+        this.dailyAggregateStore = dailyAggregateStore;
+        this.dashboardWindows = dashboardWindows;
+        this.liveTopSellers = liveTopSellers;
     }
     
     @Override
     public SalesReport generateDailySalesReport(Long outletId, LocalDateTime date) {
         log.info("Generating daily sales report for outlet: {} on date: {}", outletId, date);
-        
-        // Mock data for demonstration
-        SalesReport report = new SalesReport();
-        report.setOutletId(outletId);
-        report.setOutletName("Main Branch");
-        report.setReportDate(date);
-        report.setTotalSales(new BigDecimal("1250.50"));
-        report.setTotalOrders(45);
-        report.setTotalItemsSold(120);
-        report.setAverageOrderValue(new BigDecimal("27.79"));
-        report.setTopSellingProduct("Traditional Curry Powder");
-        report.setTopSellingCategory("Spices");
-        report.setReportType(SalesReport.ReportType.DAILY);
-        
-        return salesReportRepository.save(report);
+        LocalDateTime start = date.toLocalDate().atStartOfDay();
+        return generateSalesReport(outletId, SalesReport.ReportType.DAILY, start, start.plusDays(1));
     }
     
     @Override
     public SalesReport generateWeeklySalesReport(Long outletId, LocalDateTime startDate) {
         log.info("Generating weekly sales report for outlet: {} starting: {}", outletId, startDate);
-        
-        SalesReport report = new SalesReport();
-        report.setOutletId(outletId);
-        report.setOutletName("Main Branch");
-        report.setReportDate(startDate);
-        report.setTotalSales(new BigDecimal("8750.25"));
-        report.setTotalOrders(315);
-        report.setTotalItemsSold(840);
-        report.setAverageOrderValue(new BigDecimal("27.78"));
-        report.setTopSellingProduct("Ceylon Tea");
-        report.setTopSellingCategory("Beverages");
-        report.setReportType(SalesReport.ReportType.WEEKLY);
-        
-        return salesReportRepository.save(report);
+        LocalDateTime start = startDate.toLocalDate().atStartOfDay();
+        return generateSalesReport(outletId, SalesReport.ReportType.WEEKLY, start, start.plusWeeks(1));
     }
     
     @Override
     public SalesReport generateMonthlySalesReport(Long outletId, LocalDateTime date) {
         log.info("Generating monthly sales report for outlet: {} for month: {}", outletId, date);
-        
-        SalesReport report = new SalesReport();
-        report.setOutletId(outletId);
-        report.setOutletName("Main Branch");
-        report.setReportDate(date);
-        report.setTotalSales(new BigDecimal("37500.75"));
-        report.setTotalOrders(1350);
-        report.setTotalItemsSold(3600);
-        report.setAverageOrderValue(new BigDecimal("27.78"));
-        report.setTopSellingProduct("Traditional Curry Powder");
-        report.setTopSellingCategory("Spices");
-        report.setReportType(SalesReport.ReportType.MONTHLY);
-        
-        return salesReportRepository.save(report);
+        LocalDateTime start = date.toLocalDate().withDayOfMonth(1).atStartOfDay();
+        return generateSalesReport(outletId, SalesReport.ReportType.MONTHLY, start, start.plusMonths(1));
     }
     
     @Override
     public SalesReport generateYearlySalesReport(Long outletId, LocalDateTime date) {
         log.info("Generating yearly sales report for outlet: {} for year: {}", outletId, date);
-        
-        SalesReport report = new SalesReport();
+        LocalDateTime start = date.toLocalDate().withDayOfYear(1).atStartOfDay();
+        return generateSalesReport(outletId, SalesReport.ReportType.YEARLY, start, start.plusYears(1));
+    }
+    
+    /**
+     * Rolls the daily aggregates of [start, end) up into the report dated start.
+     * A daily report sums its day from the sales again; longer periods reuse the days
+     * already summed. Regenerating a period overwrites its report instead of adding a duplicate.
+     */
+    private SalesReport generateSalesReport(Long outletId, SalesReport.ReportType reportType,
+                                            LocalDateTime start, LocalDateTime end) {
+        List<DailySalesAggregate> days = reportType == SalesReport.ReportType.DAILY
+                ? List.of(dailyAggregateStore.refresh(outletId, start.toLocalDate()))
+                : dailyAggregateStore.load(outletId, start.toLocalDate(), end.toLocalDate());
+        SalesRollup rollup = new SalesRollup();
+        days.forEach(rollup::add);
+        SalesSummary summary = rollup.summarize();
+        
+        SalesReport report = salesReportRepository
+                .findByOutletIdAndReportDateAndReportType(outletId, start, reportType)
+                .orElseGet(SalesReport::new);
         report.setOutletId(outletId);
-        report.setOutletName("Main Branch");
-        report.setReportDate(date);
-        report.setTotalSales(new BigDecimal("450000.00"));
-        report.setTotalOrders(16200);
-        report.setTotalItemsSold(43200);
-        report.setAverageOrderValue(new BigDecimal("27.78"));
-        report.setTopSellingProduct("Traditional Curry Powder");
-        report.setTopSellingCategory("Spices");
-        report.setReportType(SalesReport.ReportType.YEARLY);
+        report.setReportDate(start);
+        report.setTotalSales(summary.totalSales());
+        report.setTotalOrders(Math.toIntExact(summary.orders()));
+        report.setTotalItemsSold(Math.toIntExact(summary.itemsSold()));
+        report.setAverageOrderValue(summary.averageOrderValue());
+        report.setTopSellingProduct(summary.topProduct());
+        report.setTopSellingCategory(summary.topCategory());
+        report.setReportType(reportType);
         
         return salesReportRepository.save(report);
     }
@@ -122,10 +120,7 @@ public class ReportingServiceImpl implements ReportingService {
     @Override
     @Transactional(readOnly = true)
     public List<SalesReport> getTopPerformingOutlets(SalesReport.ReportType reportType, int limit) {
-        return salesReportRepository.findTopPerformersByReportType(reportType)
-                .stream()
-                .limit(limit)
-                .toList();
+        return salesReportRepository.findTopPerformersByReportType(reportType, Limit.of(limit));
     }
     
     @Override
@@ -155,19 +150,23 @@ public class ReportingServiceImpl implements ReportingService {
     @Override
     @Transactional(readOnly = true)
     public List<ProductAnalytics> getTopSellingProducts(Long outletId, int limit) {
-        return productAnalyticsRepository.findTopSellingProductsByOutlet(outletId)
-                .stream()
-                .limit(limit)
-                .toList();
+        return productAnalyticsRepository.findTopSellingProductsByOutlet(outletId, Limit.of(limit));
     }
     
     @Override
     @Transactional(readOnly = true)
     public List<ProductAnalytics> getTopProductsByCategory(String category, int limit) {
-        return productAnalyticsRepository.findTopProductsByCategory(category)
-                .stream()
-                .limit(limit)
-                .toList();
+        return productAnalyticsRepository.findTopProductsByCategory(category, Limit.of(limit));
+    }
+    
+    @Override
+    public List<TopSeller> getLiveTopSellingProducts(Long outletId, int limit) {
+        return liveTopSellers.topForOutlet(outletId, limit);
+    }
+    
+    @Override
+    public List<TopSeller> getLiveTopProductsByCategory(String category, int limit) {
+        return liveTopSellers.topForCategory(category, limit);
     }
     
     @Override
@@ -179,18 +178,13 @@ public class ReportingServiceImpl implements ReportingService {
     @Override
     @Transactional(readOnly = true)
     public Object getDashboardSummary(Long outletId) {
-        Map<String, Object> summary = new HashMap<>();
-        
-        // Mock dashboard data
-        summary.put("totalSales", new BigDecimal("1250.50"));
-        summary.put("totalOrders", 45);
-        summary.put("totalCustomers", 38);
-        summary.put("averageOrderValue", new BigDecimal("27.79"));
-        summary.put("topSellingProduct", "Traditional Curry Powder");
-        summary.put("salesGrowth", 12.5);
-        summary.put("orderGrowth", 8.3);
-        
-        return summary;
+        return dashboardWindows.summary(outletId);
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public SseEmitter streamDashboardSummary(Long outletId) {
+        return dashboardWindows.subscribe(outletId);
     }
     
     @Override
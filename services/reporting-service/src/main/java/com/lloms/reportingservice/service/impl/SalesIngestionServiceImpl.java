@@ -0,0 +1,87 @@
+package com.lloms.reportingservice.service.impl;
+
+import com.lloms.reportingservice.dto.IngestResult;
+import com.lloms.reportingservice.dto.SaleIngestRecord;
+import com.lloms.reportingservice.event.SalesIngestedEvent;
+import com.lloms.reportingservice.repository.SalesIngestionRepository;
+import com.lloms.reportingservice.repository.SalesIngestionRepository.OutletHour;
+import com.lloms.reportingservice.repository.SalesIngestionRepository.StoredSale;
+import com.lloms.reportingservice.service.SalesIngestionService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Service
+@Transactional
+public class SalesIngestionServiceImpl implements SalesIngestionService {
+    
+    private static final Logger log = LoggerFactory.getLogger(SalesIngestionServiceImpl.class);
+    private final SalesIngestionRepository salesIngestionRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    
+    public SalesIngestionServiceImpl(SalesIngestionRepository salesIngestionRepository,
+                                     ApplicationEventPublisher eventPublisher) {
+        this.salesIngestionRepository = salesIngestionRepository;
+        this.eventPublisher = eventPublisher;
+    }
+    
+    @Override
+    public IngestResult ingestSales(List<SaleIngestRecord> sales) {
+        // A sale updated twice in quick succession can appear twice in one batch; keep its newest copy
+        Map<String, SaleIngestRecord> latest = new LinkedHashMap<>();
+        for (SaleIngestRecord sale : sales) {
+            validate(sale);
+            latest.merge(sale.saleId(), sale, (kept, next) -> next.version() >= kept.version() ? next : kept);
+        }
+        if (latest.isEmpty()) {
+            return new IngestResult(0, 0, 0);
+        }
+        
+        Set<OutletHour> hours = new HashSet<>();
+        Set<String> stored = new HashSet<>();
+        for (StoredSale sale : salesIngestionRepository.findStored(latest.keySet())) {
+            hours.add(sale.hour());
+            stored.add(sale.saleId());
+        }
+        List<SaleIngestRecord> applied = salesIngestionRepository.upsertSales(new ArrayList<>(latest.values()));
+        if (applied.isEmpty()) {
+            log.debug("Ingested batch of {} sales, all already stored", sales.size());
+            return new IngestResult(sales.size(), 0, 0);
+        }
+        
+        salesIngestionRepository.replaceLines(applied);
+        for (SaleIngestRecord sale : applied) {
+            hours.add(new OutletHour(sale.outletId(), sale.soldAt().truncatedTo(ChronoUnit.HOURS)));
+        }
+        salesIngestionRepository.lockHours(hours);
+        salesIngestionRepository.recountHours(hours);
+        salesIngestionRepository.invalidateDays(hours);
+        eventPublisher.publishEvent(new SalesIngestedEvent(
+                hours.stream().map(OutletHour::outletId).collect(Collectors.toSet()), applied,
+                applied.stream().filter(sale -> !stored.contains(sale.saleId())).toList()));
+        
+        log.debug("Ingested batch of {} sales, {} applied, {} outlet hours recounted", sales.size(), applied.size(),
+                hours.size());
+        return new IngestResult(sales.size(), applied.size(), hours.size());
+    }
+    
+    private static void validate(SaleIngestRecord sale) {
+        if (sale.saleId() == null || sale.saleId().isBlank()) {
+            throw new IllegalArgumentException("Sale ID is required");
+        }
+        if (sale.outletId() == null || sale.soldAt() == null || sale.status() == null || sale.items() == null) {
+            throw new IllegalArgumentException("Sale " + sale.saleId() + " is missing outlet, time, status or items");
+        }
+    }
+}
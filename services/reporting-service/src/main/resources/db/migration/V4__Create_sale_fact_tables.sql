@@ -0,0 +1,29 @@
+-- Create sale fact tables, the source the sales reports are aggregated from
+CREATE TABLE sale_facts (
+    sale_id VARCHAR(64) PRIMARY KEY,
+    sale_number VARCHAR(255),
+    outlet_id BIGINT NOT NULL,
+    sold_at TIMESTAMP NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    item_count INTEGER,
+    total_amount DECIMAL(12,2)
+);
+
+CREATE TABLE sale_item_facts (
+    id BIGSERIAL PRIMARY KEY,
+    sale_id VARCHAR(64) NOT NULL,
+    line_number INTEGER NOT NULL,
+    outlet_id BIGINT NOT NULL,
+    sold_at TIMESTAMP NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    product_id VARCHAR(64) NOT NULL,
+    product_name VARCHAR(255),
+    category VARCHAR(255),
+    quantity INTEGER NOT NULL,
+    total_price DECIMAL(12,2),
+    CONSTRAINT uk_sale_item_facts_sale_line UNIQUE (sale_id, line_number)
+);
+
+-- Reports scan one outlet over a time range
+CREATE INDEX idx_sale_facts_outlet_sold_at ON sale_facts(outlet_id, sold_at);
+CREATE INDEX idx_sale_item_facts_outlet_sold_at ON sale_item_facts(outlet_id, sold_at);
@@ -0,0 +1,13 @@
+-- Create daily_sales_aggregates table, the partial sums longer reports are rolled up from
+CREATE TABLE daily_sales_aggregates (
+    id BIGSERIAL PRIMARY KEY,
+    outlet_id BIGINT NOT NULL,
+    sales_date DATE NOT NULL,
+    sales_cents BIGINT NOT NULL,
+    orders BIGINT NOT NULL,
+    items_sold BIGINT NOT NULL,
+    product_sketch BYTEA NOT NULL,
+    category_sketch BYTEA NOT NULL,
+    computed_at TIMESTAMP NOT NULL,
+    CONSTRAINT uk_daily_sales_aggregates_outlet_date UNIQUE (outlet_id, sales_date)
+);
@@ -0,0 +1,14 @@
+-- Sale versions let redelivered or reordered sales be applied idempotently
+ALTER TABLE sale_facts ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+
+-- Create hourly_sales_aggregates table, kept current by sales ingestion
+CREATE TABLE hourly_sales_aggregates (
+    id BIGSERIAL PRIMARY KEY,
+    outlet_id BIGINT NOT NULL,
+    sales_hour TIMESTAMP NOT NULL,
+    orders BIGINT NOT NULL,
+    sales_cents BIGINT NOT NULL,
+    items_sold BIGINT NOT NULL,
+    updated_at TIMESTAMP NOT NULL,
+    CONSTRAINT uk_hourly_sales_aggregates_outlet_hour UNIQUE (outlet_id, sales_hour)
+);
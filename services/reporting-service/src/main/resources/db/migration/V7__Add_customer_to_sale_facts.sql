@@ -0,0 +1,2 @@
+-- Customers feed the distinct customer count of the live dashboard
+ALTER TABLE sale_facts ADD COLUMN customer_id VARCHAR(64);
@@ -0,0 +1,7 @@
+-- Top-N queries read the first rows of these indexes instead of sorting every row
+CREATE INDEX idx_product_analytics_outlet_quantity ON product_analytics(outlet_id, total_quantity_sold DESC);
+CREATE INDEX idx_product_analytics_category_revenue ON product_analytics(category, total_revenue DESC);
+CREATE INDEX idx_sales_reports_type_total_sales ON sales_reports(report_type, total_sales DESC);
+
+-- Live category top sellers are seeded from today's lines of one category
+CREATE INDEX idx_sale_item_facts_category_sold_at ON sale_item_facts(category, sold_at);